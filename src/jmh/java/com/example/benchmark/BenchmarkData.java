@@ -0,0 +1,88 @@
+package com.example.benchmark;
+
+import com.example.dto.comments.CommentDTOResponse;
+import com.example.dto.tasks.TaskDTO;
+import com.example.dto.tasks.TaskDTOResponse;
+import com.example.model.Task;
+import com.example.model.TaskPriority;
+import com.example.model.TaskState;
+import com.example.model.User;
+import com.example.service.TaskCommentSummary;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic fixtures, so every benchmark run maps and serialises exactly the same data.
+ */
+final class BenchmarkData {
+
+    private static final long SEED = 42;
+
+    private BenchmarkData() {
+    }
+
+    static User user(int id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setMail("user" + id + "@mail.ru");
+        return user;
+    }
+
+    static TaskDTO taskDTO() {
+        TaskDTO taskDTO = new TaskDTO();
+        taskDTO.setTitle("task-1");
+        taskDTO.setDescription("some task description");
+        taskDTO.setTaskState(TaskState.IN_PROGRESS);
+        taskDTO.setTaskPriority(TaskPriority.HI);
+        taskDTO.setOwnerId(1);
+        taskDTO.setExecutorId(2);
+        return taskDTO;
+    }
+
+    static Task task(int id, Random random) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle("task-" + id);
+        task.setDescription("description of task " + id + " ".repeat(random.nextInt(64)));
+        task.setTaskState(TaskState.values()[random.nextInt(TaskState.values().length)]);
+        task.setTaskPriority(TaskPriority.values()[random.nextInt(TaskPriority.values().length)]);
+        task.setOwner(user(1 + random.nextInt(100)));
+        task.setExecutor(random.nextBoolean() ? user(1 + random.nextInt(100)) : null);
+        return task;
+    }
+
+    static TaskCommentSummary commentSummary(int taskId, Random random) {
+        int latest = random.nextInt(4);
+        List<CommentDTOResponse> comments = new ArrayList<>(latest);
+        for (int i = 0; i < latest; i++) {
+            comments.add(new CommentDTOResponse(taskId * 10 + i, "comment " + i + " for task " + taskId, 1 + random.nextInt(100)));
+        }
+        return new TaskCommentSummary(latest + random.nextInt(20), comments);
+    }
+
+    static List<TaskDTOResponse> taskDTOResponses(int size) {
+        Random random = new Random(SEED);
+        List<TaskDTOResponse> responses = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            Task task = task(i, random);
+            TaskCommentSummary summary = commentSummary(i, random);
+            TaskDTOResponse response = new TaskDTOResponse();
+            response.setTitle(task.getTitle());
+            response.setDescription(task.getDescription());
+            response.setTaskState(task.getTaskState());
+            response.setTaskPriority(task.getTaskPriority());
+            response.setOwnerId(task.getOwner().getId());
+            response.setExecutorId(task.getExecutor() != null ? task.getExecutor().getId() : null);
+            response.setCommentCount(summary.commentCount());
+            response.setCommentList(summary.latestComments());
+            responses.add(response);
+        }
+        return responses;
+    }
+
+    static Random random() {
+        return new Random(SEED);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.benchmark;
+
+import com.example.dto.tasks.TaskDTO;
+import com.example.exception.ValidationFailException;
+import com.example.util.BindingResultValidation;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BindingResultValidationBenchmark {
+
+    private BindingResult validResult;
+
+    private BindingResult invalidResult;
+
+    @Setup
+    public void setup() {
+        validResult = new BeanPropertyBindingResult(new TaskDTO(), "taskDTO");
+
+        invalidResult = new BeanPropertyBindingResult(new TaskDTO(), "taskDTO");
+        invalidResult.rejectValue("title", "NotNull", "field is required");
+        invalidResult.rejectValue("taskPriority", "NotNull", "field is required");
+        invalidResult.rejectValue("ownerId", "NotNull", "field is required");
+    }
+
+    @Benchmark
+    public BindingResult validRequest() {
+        BindingResultValidation.bindingResultCheck(validResult);
+        return validResult;
+    }
+
+    @Benchmark
+    public String invalidRequest() {
+        try {
+            BindingResultValidation.bindingResultCheck(invalidResult);
+            return null;
+        } catch (ValidationFailException e) {
+            return e.getMessage();
+        }
+    }
+}
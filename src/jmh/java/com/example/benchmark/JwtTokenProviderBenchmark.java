@@ -0,0 +1,79 @@
+package com.example.benchmark;
+
+import com.example.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class JwtTokenProviderBenchmark {
+
+    static final String SIGNING_KEY = "shstDXJ2+hxhMSL/SANOJXugwomm5r98q5qvscxya8qgcqsgKAHQPXHAasnxnbsqs1394mxjJJmrnyx29238345267281kajhsgdewuiiqjqhgsgshjsSDFGHJKERTYDFG";
+
+    private JwtTokenProvider jwtTokenProvider;
+
+    private JwtParser jwtParser;
+
+    private String token;
+
+    private String expiredToken;
+
+    @Setup
+    public void setup() {
+        jwtTokenProvider = new JwtTokenProvider(SIGNING_KEY, 10000);
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SIGNING_KEY));
+        jwtParser = Jwts.parser().verifyWith(key).build();
+
+        token = jwtTokenProvider.createToken("base@mail.ru");
+        jwtTokenProvider.verify(token);
+        expiredToken = Jwts.builder().subject("base@mail.ru").issuedAt(new Date(0)).expiration(new Date(1000)).signWith(key).compact();
+    }
+
+    @Benchmark
+    public String createToken() {
+        return jwtTokenProvider.createToken("base@mail.ru");
+    }
+
+    /**
+     * Full signature check, which is what a cache miss in {@link JwtTokenProvider#verify} costs.
+     */
+    @Benchmark
+    public Claims parseSignedClaims() {
+        return jwtParser.parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public Optional<Claims> verifyCached() {
+        return jwtTokenProvider.verify(token);
+    }
+
+    @Benchmark
+    public String getUsername() {
+        return jwtTokenProvider.getUsername(token);
+    }
+
+    @Benchmark
+    public boolean isTokenExpired() {
+        return jwtTokenProvider.isTokenExpired(token);
+    }
+
+    /**
+     * Expired tokens are never cached, so every call pays for parsing and the signature check.
+     */
+    @Benchmark
+    public boolean isExpiredTokenExpired() {
+        return jwtTokenProvider.isTokenExpired(expiredToken);
+    }
+}
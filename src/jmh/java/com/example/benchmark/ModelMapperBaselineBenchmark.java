@@ -0,0 +1,94 @@
+package com.example.benchmark;
+
+import com.example.dto.tasks.TaskDTO;
+import com.example.dto.tasks.TaskDTOResponse;
+import com.example.dto.tasks.TaskDTOToTaskConverter;
+import com.example.dto.tasks.TaskToTaskDTOResponseConverter;
+import com.example.model.Task;
+import com.example.service.TaskCommentSummary;
+import org.modelmapper.AbstractConverter;
+import org.modelmapper.Converter;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The mapping as the controllers did it before the converters were called directly: a new ModelMapper per request
+ * with the converter registered on it. The converters do the same field copies as {@link TaskConverterBenchmark},
+ * so the difference is what ModelMapper itself costs. The shared-mapper variants separate the construction
+ * of the mapper from the mapping.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ModelMapperBaselineBenchmark {
+
+    private Converter<TaskDTO, Task> taskDTOToTaskConverter;
+
+    private Converter<Task, TaskDTOResponse> taskToTaskDTOResponseConverter;
+
+    private ModelMapper sharedTaskDTOToTaskMapper;
+
+    private ModelMapper sharedTaskToTaskDTOResponseMapper;
+
+    private TaskDTO taskDTO;
+
+    private Task task;
+
+    @Setup
+    public void setup() {
+        TaskDTOToTaskConverter taskConverter = new TaskDTOToTaskConverter(new TaskConverterBenchmark.InMemoryUserService());
+        TaskToTaskDTOResponseConverter responseConverter = new TaskToTaskDTOResponseConverter(null);
+
+        Random random = BenchmarkData.random();
+        taskDTO = BenchmarkData.taskDTO();
+        task = BenchmarkData.task(1, random);
+        TaskCommentSummary commentSummary = BenchmarkData.commentSummary(1, random);
+
+        taskDTOToTaskConverter = new AbstractConverter<TaskDTO, Task>() {
+            @Override
+            protected Task convert(TaskDTO source) {
+                return taskConverter.convert(source);
+            }
+        };
+        taskToTaskDTOResponseConverter = new AbstractConverter<Task, TaskDTOResponse>() {
+            @Override
+            protected TaskDTOResponse convert(Task source) {
+                return responseConverter.convert(source, commentSummary);
+            }
+        };
+
+        sharedTaskDTOToTaskMapper = new ModelMapper();
+        sharedTaskDTOToTaskMapper.addConverter(taskDTOToTaskConverter);
+        sharedTaskToTaskDTOResponseMapper = new ModelMapper();
+        sharedTaskToTaskDTOResponseMapper.addConverter(taskToTaskDTOResponseConverter);
+    }
+
+    @Benchmark
+    public Task taskDTOToTaskPerRequestMapper() {
+        ModelMapper modelMapper = new ModelMapper();
+        modelMapper.addConverter(taskDTOToTaskConverter);
+        return modelMapper.map(taskDTO, Task.class);
+    }
+
+    @Benchmark
+    public TaskDTOResponse taskToTaskDTOResponsePerRequestMapper() {
+        ModelMapper modelMapper = new ModelMapper();
+        modelMapper.addConverter(taskToTaskDTOResponseConverter);
+        return modelMapper.map(task, TaskDTOResponse.class);
+    }
+
+    @Benchmark
+    public Task taskDTOToTaskSharedMapper() {
+        return sharedTaskDTOToTaskMapper.map(taskDTO, Task.class);
+    }
+
+    @Benchmark
+    public TaskDTOResponse taskToTaskDTOResponseSharedMapper() {
+        return sharedTaskToTaskDTOResponseMapper.map(task, TaskDTOResponse.class);
+    }
+}
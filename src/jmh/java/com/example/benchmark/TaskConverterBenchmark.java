@@ -0,0 +1,83 @@
+package com.example.benchmark;
+
+import com.example.dto.tasks.TaskDTO;
+import com.example.dto.tasks.TaskDTOResponse;
+import com.example.dto.tasks.TaskDTOToTaskConverter;
+import com.example.dto.tasks.TaskToTaskDTOResponseConverter;
+import com.example.model.Task;
+import com.example.model.User;
+import com.example.service.TaskCommentSummary;
+import com.example.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TaskConverterBenchmark {
+
+    private TaskDTOToTaskConverter taskDTOToTaskConverter;
+
+    private TaskToTaskDTOResponseConverter taskToTaskDTOResponseConverter;
+
+    private TaskDTO taskDTO;
+
+    private Task task;
+
+    private TaskCommentSummary commentSummary;
+
+    @Setup
+    public void setup() {
+        taskDTOToTaskConverter = new TaskDTOToTaskConverter(new InMemoryUserService());
+        taskToTaskDTOResponseConverter = new TaskToTaskDTOResponseConverter(null);
+
+        Random random = BenchmarkData.random();
+        taskDTO = BenchmarkData.taskDTO();
+        task = BenchmarkData.task(1, random);
+        commentSummary = BenchmarkData.commentSummary(1, random);
+    }
+
+    @Benchmark
+    public Task taskDTOToTask() {
+        return taskDTOToTaskConverter.convert(taskDTO);
+    }
+
+    @Benchmark
+    public Task taskDTOToTaskWithUserReferences() {
+        return taskDTOToTaskConverter.convertWithUserReferences(taskDTO);
+    }
+
+    @Benchmark
+    public TaskDTOResponse taskToTaskDTOResponse() {
+        return taskToTaskDTOResponseConverter.convert(task, commentSummary);
+    }
+
+    /**
+     * Answers user lookups from memory, so the benchmark measures the mapping rather than the database.
+     */
+    static class InMemoryUserService extends UserService {
+
+        private final User owner = BenchmarkData.user(1);
+
+        private final User executor = BenchmarkData.user(2);
+
+        InMemoryUserService() {
+            super(null, null);
+        }
+
+        @Override
+        public Optional<User> getUserById(int id) {
+            return Optional.of(id == 1 ? owner : executor);
+        }
+
+        @Override
+        public User getUserReference(int id) {
+            return id == 1 ? owner : executor;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.benchmark;
+
+import com.example.dto.tasks.TaskDTOResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TaskJsonSerializationBenchmark {
+
+    @Param({"1", "20", "1000", "10000"})
+    private int size;
+
+    private List<TaskDTOResponse> tasks;
+
+    private ObjectMapper objectMapper;
+
+    private ObjectWriter listWriter;
+
+    @Setup
+    public void setup() {
+        tasks = BenchmarkData.taskDTOResponses(size);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, TaskDTOResponse.class));
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(tasks);
+    }
+
+    /**
+     * Same payload through a writer whose serializer chain is resolved once up front.
+     */
+    @Benchmark
+    public byte[] typedWriter() throws JsonProcessingException {
+        return listWriter.writeValueAsBytes(tasks);
+    }
+}
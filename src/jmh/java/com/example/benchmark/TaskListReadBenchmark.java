@@ -0,0 +1,116 @@
+package com.example.benchmark;
+
+import com.example.dto.tasks.TaskDTOResponse;
+import com.example.dto.tasks.TaskToTaskDTOResponseConverter;
+import com.example.dto.tasks.TaskView;
+import com.example.dto.tasks.TaskViewToTaskDTOResponseConverter;
+import com.example.model.Comment;
+import com.example.model.Task;
+import com.example.model.User;
+import com.example.service.TaskCommentSummary;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Reads one owner's task list and maps it to responses, through Task entities as the list endpoints did before
+ * and through the TaskView projection they use now. The database is an in-memory H2, so the scores are dominated
+ * by what Hibernate does with the rows: entity and proxy creation in the persistence context for the entity path,
+ * one constructor call per row for the projection. Both sessions are read-only, like the service transactions,
+ * and comment summaries are left out because both paths load them the same way.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TaskListReadBenchmark {
+
+    private static final int OWNER_ID = 1;
+
+    @Param({"20", "500"})
+    private int size;
+
+    private SessionFactory sessionFactory;
+
+    private TaskToTaskDTOResponseConverter taskToTaskDTOResponseConverter;
+
+    private TaskViewToTaskDTOResponseConverter taskViewToTaskDTOResponseConverter;
+
+    @Setup
+    public void setup() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(User.class)
+                .addAnnotatedClass(Task.class)
+                .addAnnotatedClass(Comment.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:task-list-read;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false")
+                .buildSessionFactory();
+        taskToTaskDTOResponseConverter = new TaskToTaskDTOResponseConverter(null);
+        taskViewToTaskDTOResponseConverter = new TaskViewToTaskDTOResponseConverter(null);
+
+        sessionFactory.inTransaction(session -> {
+            List<User> users = new ArrayList<>();
+            for (int id = 1; id <= 100; id++) {
+                User user = BenchmarkData.user(id);
+                user.setId(0);
+                session.persist(user);
+                users.add(user);
+            }
+            Random random = BenchmarkData.random();
+            for (int id = 1; id <= size; id++) {
+                Task task = BenchmarkData.task(id, random);
+                task.setId(0);
+                task.setOwner(users.get(OWNER_ID - 1));
+                task.setExecutor(task.getExecutor() != null ? users.get(task.getExecutor().getId() - 1) : null);
+                session.persist(task);
+            }
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<TaskDTOResponse> entities() {
+        return read(session -> {
+            List<Task> tasks = session.createQuery("select t from Task t where t.owner.id = ?1 order by t.id", Task.class)
+                    .setParameter(1, OWNER_ID).getResultList();
+            List<TaskDTOResponse> responses = new ArrayList<>(tasks.size());
+            for (Task task : tasks) responses.add(taskToTaskDTOResponseConverter.convert(task, TaskCommentSummary.EMPTY));
+            return responses;
+        });
+    }
+
+    @Benchmark
+    public List<TaskDTOResponse> projection() {
+        return read(session -> {
+            List<TaskView> tasks = session.createQuery(TaskView.SELECT + "where t.owner.id = ?1 order by t.id", TaskView.class)
+                    .setParameter(1, OWNER_ID).getResultList();
+            List<TaskDTOResponse> responses = new ArrayList<>(tasks.size());
+            for (TaskView task : tasks) responses.add(taskViewToTaskDTOResponseConverter.convert(task, TaskCommentSummary.EMPTY));
+            return responses;
+        });
+    }
+
+    private List<TaskDTOResponse> read(Function<Session, List<TaskDTOResponse>> query) {
+        return sessionFactory.fromTransaction(session -> {
+            session.setDefaultReadOnly(true);
+            session.setHibernateFlushMode(FlushMode.MANUAL);
+            return query.apply(session);
+        });
+    }
+}
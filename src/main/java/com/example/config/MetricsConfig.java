@@ -0,0 +1,41 @@
+package com.example.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+import com.example.monitoring.SqlStatementCounter;
+import com.example.monitoring.StatementCountingDataSource;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricsConfig {
+
+    private static final String APPLICATION_DATA_SOURCE = "dataSource";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    /**
+     * Wraps the DataSource the application works with, so that Hibernate and JdbcTemplate statements are counted alike.
+     * Pools behind it, such as the replica pools, are not wrapped again.
+     */
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor(ObjectProvider<SqlStatementCounter> sqlStatementCounter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+                if (bean instanceof DataSource dataSource && APPLICATION_DATA_SOURCE.equals(beanName)) {
+                    return new StatementCountingDataSource(dataSource, sqlStatementCounter.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.config;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -8,17 +11,20 @@ import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import com.example.repository.UserRepository;
+import com.example.security.BCryptStrengthCalibration;
 import com.example.security.JwtAuthenticationFilter;
 import com.example.security.UserDetailsServiceImpl;
 
+import java.time.Duration;
+
 import static org.springframework.security.config.http.SessionCreationPolicy.STATELESS;
 
+@Slf4j
 @Configuration
 @EnableWebSecurity
 @RequiredArgsConstructor
@@ -31,7 +37,7 @@ public class SecurityConfig {
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http.csrf(csrf -> csrf.ignoringRequestMatchers("/**")).authorizeHttpRequests(
-                requests -> requests.requestMatchers("/swagger-ui/**", "/swagger/**")
+                requests -> requests.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll().requestMatchers("/swagger-ui/**", "/swagger/**", "/actuator/health", "/actuator/prometheus")
                         .permitAll().requestMatchers("/login").permitAll().requestMatchers("/login/register").permitAll().anyRequest().authenticated())
                 .sessionManagement(session -> session.sessionCreationPolicy(STATELESS)).addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
@@ -39,20 +45,25 @@ public class SecurityConfig {
     }
 
     @Bean
-    public UserDetailsService userDetailsService() {
+    public UserDetailsServiceImpl userDetailsService() {
         return new UserDetailsServiceImpl(userRepository);
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-       return new BCryptPasswordEncoder(16);
+    public PasswordEncoder passwordEncoder(@Value("${password.hashing.target-latency:250ms}") Duration targetLatency,
+                                           @Value("${password.hashing.min-strength:10}") int minStrength,
+                                           @Value("${password.hashing.max-strength:16}") int maxStrength) {
+        int strength = BCryptStrengthCalibration.calibrate(targetLatency, minStrength, maxStrength);
+        log.info("Using BCrypt strength {} for a target hash latency of {}", strength, targetLatency);
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
-    public AuthenticationManager authenticationManager(UserDetailsService userDetailsService, PasswordEncoder passwordEncoder) {
+    public AuthenticationManager authenticationManager(UserDetailsServiceImpl userDetailsService, PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider();
         authenticationProvider.setUserDetailsService(userDetailsService);
         authenticationProvider.setPasswordEncoder(passwordEncoder);
+        authenticationProvider.setUserDetailsPasswordService(userDetailsService);
 
         return new ProviderManager(authenticationProvider);
     }
@@ -0,0 +1,56 @@
+package com.example.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import com.example.monitoring.RequestStatements;
+import com.example.monitoring.SqlStatementCounter;
+
+import java.util.concurrent.Callable;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final SqlStatementCounter sqlStatementCounter;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler) {
+                sqlStatementCounter.markHandlerStart();
+                return true;
+            }
+        });
+    }
+
+    /**
+     * Streams such as the NDJSON export run their statements on an async thread; they count towards their request.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> void preProcess(@NonNull NativeWebRequest request, @NonNull Callable<T> task) {
+                if (request.getAttribute(SqlStatementCounter.REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof RequestStatements statements) {
+                    sqlStatementCounter.start(statements);
+                }
+            }
+
+            @Override
+            public <T> void postProcess(@NonNull NativeWebRequest request, @NonNull Callable<T> task, Object concurrentResult) {
+                sqlStatementCounter.stop();
+            }
+        });
+    }
+}
@@ -4,7 +4,6 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -13,16 +12,17 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import com.example.dto.LoginDTO;
 import com.example.dto.UserDTO;
+import com.example.dto.UserDTOToUserConverter;
 import com.example.exception.AuthenticationFailException;
 import com.example.model.User;
 import com.example.security.JwtResponse;
 import com.example.security.JwtTokenProvider;
-import com.example.security.UserDetailsServiceImpl;
+import com.example.security.PasswordHashingExecutor;
 import com.example.service.UserService;
 import com.example.util.BindingResultValidation;
 import com.example.validation.RegistrationValidation;
@@ -37,12 +37,16 @@ public class LoginController {
 
     private final AuthenticationManager authenticationManager;
 
-    private final UserDetailsServiceImpl userDetailsService;
+    private final PasswordEncoder passwordEncoder;
+
+    private final PasswordHashingExecutor passwordHashingExecutor;
 
     private final JwtTokenProvider jwtTokenProvider;
 
     private final RegistrationValidation registrationValidation;
 
+    private final UserDTOToUserConverter userDTOToUserConverter;
+
     @Operation(summary = "Login", description = "Login to system and receive JWT token")
     @PostMapping()
     public ResponseEntity<JwtResponse> login(@RequestBody @Valid LoginDTO loginDTO, BindingResult bindingResult) {
@@ -52,11 +56,11 @@ public class LoginController {
         Authentication authenticationRequest = UsernamePasswordAuthenticationToken.unauthenticated(loginDTO.getMail(), loginDTO.getPassword());
         JwtResponse jwtResponse = null;
         try {
-            Authentication authenticationResponse = authenticationManager.authenticate(authenticationRequest);
+            Authentication authenticationResponse = passwordHashingExecutor.execute(() -> authenticationManager.authenticate(authenticationRequest));
             if (authenticationResponse.isAuthenticated()) {
                 sc.setAuthentication(authenticationResponse);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(loginDTO.getMail());
-                jwtResponse = new JwtResponse(jwtTokenProvider.createToken(userDetails));
+                User user = (User) authenticationResponse.getPrincipal();
+                jwtResponse = new JwtResponse(jwtTokenProvider.createToken(user.getMail()));
             }
         } catch (AuthenticationException e) {
             throw new AuthenticationFailException("Mail or password is incorrect");
@@ -71,8 +75,8 @@ public class LoginController {
 
         BindingResultValidation.bindingResultCheck(bindingResult);
 
-        ModelMapper requestMapper = new ModelMapper();
-        User user = requestMapper.map(userDTO, User.class);
+        User user = userDTOToUserConverter.convert(userDTO);
+        user.setPassword(passwordHashingExecutor.execute(() -> passwordEncoder.encode(userDTO.getPassword())));
         userService.createUser(user);
 
         return ResponseEntity.ok(HttpStatus.OK);
@@ -6,32 +6,63 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import com.example.dto.comments.CommentDTO;
-import com.example.dto.comments.CommentDTOToCommentConverter;
+import com.example.dto.comments.CommentDTOResponse;
+import com.example.dto.comments.CommentPageDTOResponse;
+import com.example.dto.tasks.TaskBatchDTOResponse;
+import com.example.dto.tasks.TaskBatchItemDTOResponse;
+import com.example.dto.tasks.TaskCountersDTOResponse;
 import com.example.dto.tasks.TaskDTO;
 import com.example.dto.tasks.TaskDTOResponse;
 import com.example.dto.tasks.TaskDTOToTaskConverter;
+import com.example.dto.tasks.TaskPageDTOResponse;
+import com.example.dto.tasks.TaskPatchDTO;
+import com.example.dto.tasks.TaskToTaskDTOConverter;
 import com.example.dto.tasks.TaskToTaskDTOResponseConverter;
+import com.example.dto.tasks.TaskView;
+import com.example.dto.tasks.TaskViewToTaskDTOConverter;
+import com.example.dto.tasks.TaskViewToTaskDTOResponseConverter;
 import com.example.exception.AuthorizationFailException;
 import com.example.exception.ObjectNotFoundException;
-import com.example.model.Comment;
+import com.example.exception.ValidationFailException;
 import com.example.model.Task;
+import com.example.model.TaskPriority;
 import com.example.model.TaskState;
-import com.example.model.User;
+import com.example.security.TaskAuthorizationService;
+import com.example.security.UserPrincipal;
+import com.example.service.CommentIngestionQueue;
+import com.example.service.CommentPage;
 import com.example.service.CommentService;
+import com.example.service.TaskCounterService;
+import com.example.service.TaskCounters;
+import com.example.service.TaskEventBroadcaster;
+import com.example.service.TaskExportService;
+import com.example.service.TaskFilter;
+import com.example.service.TaskPage;
 import com.example.service.TaskService;
+import com.example.service.TaskSort;
 import com.example.service.UserService;
 import com.example.util.BindingResultValidation;
+import com.example.util.TaskETag;
+import com.example.validation.TaskBatchValidation;
+import com.example.validation.TaskPatchValidation;
 import com.example.validation.TaskValidation;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @RestController
 @Tag(name = "Task manager API")
@@ -39,6 +70,15 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class TaskController {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private static final int MAX_SEARCH_QUERY_LENGTH = 200;
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    @Value("${task.batch.max-size:5000}")
+    private int maxBatchSize;
+
     private final TaskService taskService;
 
     @Getter
@@ -46,14 +86,32 @@ public class TaskController {
 
     private final CommentService commentService;
 
+    private final CommentIngestionQueue commentIngestionQueue;
+
+    private final TaskExportService taskExportService;
+
+    private final TaskCounterService taskCounterService;
+
+    private final TaskEventBroadcaster taskEventBroadcaster;
+
     private final TaskDTOToTaskConverter taskDTOToTaskConverter;
 
     private final TaskToTaskDTOResponseConverter taskToTaskDTOResponseConverter;
 
-    private final CommentDTOToCommentConverter commentDTOToCommentConverter;
+    private final TaskToTaskDTOConverter taskToTaskDTOConverter;
+
+    private final TaskViewToTaskDTOResponseConverter taskViewToTaskDTOResponseConverter;
+
+    private final TaskViewToTaskDTOConverter taskViewToTaskDTOConverter;
 
     private final TaskValidation taskValidation;
 
+    private final TaskBatchValidation taskBatchValidation;
+
+    private final TaskPatchValidation taskPatchValidation;
+
+    private final TaskAuthorizationService taskAuthorizationService;
+
 
     @PostMapping(consumes = "application/json")
     @Operation(summary = "Create task", description = "Create new task")
@@ -62,14 +120,47 @@ public class TaskController {
 
         BindingResultValidation.bindingResultCheck(bindingResult);
 
-        ModelMapper modelMapper = new ModelMapper();
-        modelMapper.addConverter(taskDTOToTaskConverter);
-        Task task = modelMapper.map(taskDTO, Task.class);
+        Task task = taskDTOToTaskConverter.convert(taskDTO);
 
         taskService.createTask(task);
         return ResponseEntity.ok(HttpStatus.OK);
     }
 
+    @PostMapping(value = "/batch", consumes = "application/json", produces = "application/json")
+    @Operation(summary = "Create tasks", description = "Creates many tasks at once and reports the result of every task")
+    public ResponseEntity<TaskBatchDTOResponse> createTasks(@RequestBody() List<TaskDTO> taskDTOList) {
+        if (taskDTOList.size() > maxBatchSize)
+            throw new ValidationFailException("tasks - at most " + maxBatchSize + " tasks per request; ");
+
+        Map<Integer, String> errors = taskBatchValidation.validate(taskDTOList);
+
+        List<Integer> validIndexes = new ArrayList<>();
+        List<Task> taskList = new ArrayList<>();
+        for (int i = 0; i < taskDTOList.size(); i++) {
+            if (errors.containsKey(i)) continue;
+            validIndexes.add(i);
+            taskList.add(taskDTOToTaskConverter.convertWithUserReferences(taskDTOList.get(i)));
+        }
+        taskService.createTasks(taskList);
+
+        List<TaskBatchItemDTOResponse> results = new ArrayList<>(taskDTOList.size());
+        for (int i = 0; i < taskDTOList.size(); i++) {
+            TaskBatchItemDTOResponse result = new TaskBatchItemDTOResponse();
+            result.setIndex(i);
+            result.setError(errors.get(i));
+            results.add(result);
+        }
+        for (int i = 0; i < validIndexes.size(); i++) {
+            results.get(validIndexes.get(i)).setId(taskList.get(i).getId());
+        }
+
+        TaskBatchDTOResponse response = new TaskBatchDTOResponse();
+        response.setCreated(taskList.size());
+        response.setFailed(errors.size());
+        response.setResults(results);
+        return ResponseEntity.ok(response);
+    }
+
     @PutMapping(consumes = "application/json", produces = "application/json")
     @Operation(summary = "Update task data", description = "Updates and returns updated task data")
     public ResponseEntity<TaskDTO> updateTask(@RequestParam("id") @Parameter(name = "id", description = "updating task id", example = "1", required = true) int taskId, @RequestBody() @Valid TaskDTO newTaskDTO, BindingResult bindingResult) {
@@ -78,63 +169,179 @@ public class TaskController {
 
         if (!ownerAuthorization(taskId)) throw new AuthorizationFailException("Not enough rights to update this task");
 
-        ModelMapper modelMapper = new ModelMapper();
-        modelMapper.addConverter(taskDTOToTaskConverter);
-        Task newTask = modelMapper.map(newTaskDTO, Task.class);
+        Task newTask = taskDTOToTaskConverter.convert(newTaskDTO);
 
         Task updatedTask = taskService.updateTask(taskId, newTask);
-        ModelMapper modelMapperResult = new ModelMapper();
-        modelMapperResult.addConverter(taskToTaskDTOResponseConverter);
-        TaskDTO resultTask = modelMapper.map(updatedTask, TaskDTO.class);
+        TaskDTO resultTask = taskToTaskDTOConverter.convert(updatedTask);
         return ResponseEntity.ok(resultTask);
     }
 
+    @PatchMapping(value = "/{id}", consumes = "application/json", produces = "application/json")
+    @Operation(summary = "Partially update task", description = "Changes only the fields present in the body of the task whose ETag is given in If-Match; answers 409 if the task changed since")
+    public ResponseEntity<TaskDTO> patchTask(@PathVariable("id") @Parameter(name = "id", description = "updating task id", example = "1") int taskId, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) @Parameter(name = "If-Match", description = "ETag of the task the changes are based on", example = "\"3\"") String ifMatch, @RequestBody() @Valid TaskPatchDTO taskPatchDTO, BindingResult bindingResult) {
+        if (ifMatch == null) throw new ValidationFailException("If-Match - ETag of the task is required; ");
+        long version = TaskETag.parseVersion(ifMatch);
+        if (taskPatchDTO.getPresentFields().isEmpty()) throw new ValidationFailException("body - no fields to update; ");
+
+        taskPatchValidation.validate(taskPatchDTO, bindingResult);
+        BindingResultValidation.bindingResultCheck(bindingResult);
+
+        if (!ownerAuthorization(taskId)) throw new AuthorizationFailException("Not enough rights to update this task");
+
+        Task task = taskService.patchTask(taskId, version, x -> taskDTOToTaskConverter.applyPatch(taskPatchDTO, x));
+        return ResponseEntity.ok().eTag(TaskETag.of(task.getVersion())).body(taskToTaskDTOConverter.convert(task));
+    }
+
     @GetMapping(value = "/{id}", produces = "application/json")
     @Operation(summary = "Get task by task id", description = "Returns task")
-    public ResponseEntity<TaskDTOResponse> getTask(@PathVariable("id") @Parameter(name = "id", description = "task id", example = "1") int id) {
+    public ResponseEntity<TaskDTOResponse> getTask(@PathVariable("id") @Parameter(name = "id", description = "task id", example = "1") int id, WebRequest webRequest) {
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<Long> version = taskService.getTaskVersion(id);
+            if (version.isEmpty()) throw new ObjectNotFoundException("Task not found");
+            if (webRequest.checkNotModified(TaskETag.of(version.get()))) return null;
+        }
 
         Optional<Task> taskOptional = taskService.getTaskById(id);
         if (taskOptional.isEmpty()) throw new ObjectNotFoundException("Task not found");
 
         Task task = taskOptional.get();
 
-        ModelMapper modelMapper = new ModelMapper();
-        modelMapper.addConverter(taskToTaskDTOResponseConverter);
-        TaskDTOResponse taskDTOResponse = modelMapper.map(task, TaskDTOResponse.class);
+        TaskDTOResponse taskDTOResponse = taskToTaskDTOResponseConverter.convert(task);
 
-        return ResponseEntity.ok(taskDTOResponse);
+        return ResponseEntity.ok().eTag(TaskETag.of(task.getVersion())).body(taskDTOResponse);
     }
 
     @GetMapping(value = "/get-by-owner", produces = "application/json")
-    @Operation(summary = "Get task by owner id", description = "Returns task list for owner")
-    public ResponseEntity<List<TaskDTOResponse>> getTaskListByOwner(@RequestParam("id") @Parameter(name = "id", description = "Owner id", example = "1") int ownerId, @RequestParam(value = "page", required = false) @Parameter(name = "page", description = "Pagination. Page number. Start from 0", example = "2", required = false) Integer page, @RequestParam(value = "tasks_per_page", required = false) @Parameter(name = "tasks_per_page", description = "Pagination. Tasks per page", example = "2", required = false) Integer tasksPerPage) {
+    @Operation(summary = "Get task by owner id", description = "Returns task list for owner, optionally filtered by state and priority and sorted")
+    public ResponseEntity<List<TaskDTOResponse>> getTaskListByOwner(@RequestParam("id") @Parameter(name = "id", description = "Owner id", example = "1") int ownerId, @RequestParam(value = "page", required = false) @Parameter(name = "page", description = "Pagination. Page number. Start from 0", example = "2", required = false) Integer page, @RequestParam(value = "tasks_per_page", required = false) @Parameter(name = "tasks_per_page", description = "Pagination. Tasks per page", example = "2", required = false) Integer tasksPerPage, @RequestParam(value = "state", required = false) @Parameter(name = "state", description = "Filter. Task state", example = "WAITING", required = false) TaskState state, @RequestParam(value = "priority", required = false) @Parameter(name = "priority", description = "Filter. Task priority", example = "HI", required = false) TaskPriority priority, @RequestParam(value = "sort", defaultValue = "ID") @Parameter(name = "sort", description = "Sort field, STATE and PRIORITY sort in workflow and importance order, ties are ordered by id", example = "PRIORITY", required = false) TaskSort sort, @RequestParam(value = "direction", defaultValue = "ASC") @Parameter(name = "direction", description = "Sort direction", example = "DESC", required = false) Sort.Direction direction, WebRequest webRequest) {
+        TaskFilter filter = new TaskFilter(state, priority, sort, direction);
+
+        List<TaskView> taskList;
+        if (page == null || tasksPerPage == null) taskList = taskService.getTaskListByOwnerId(ownerId, filter);
+        else {
+            checkPage(page, tasksPerPage);
+            taskList = taskService.getTaskListByOwnerId(ownerId, filter, page, tasksPerPage);
+        }
 
-        List<Task> taskList;
-        if (page == null || tasksPerPage == null) taskList = taskService.getTaskListByOwnerId(ownerId);
-        else taskList = taskService.getTaskListByOwnerId(ownerId, page, tasksPerPage);
 
+        String eTag = TaskETag.of(taskList);
+        if (webRequest.checkNotModified(eTag)) return null;
 
-        ModelMapper modelMapper = new ModelMapper();
-        modelMapper.addConverter(taskToTaskDTOResponseConverter);
-        List<TaskDTOResponse> taskDTOResponseList = taskList.stream().map(x -> modelMapper.map(x, TaskDTOResponse.class)).collect(Collectors.toList());
+        List<TaskDTOResponse> taskDTOResponseList = taskViewToTaskDTOResponseConverter.convert(taskList);
 
-        return ResponseEntity.ok(taskDTOResponseList);
+        return ResponseEntity.ok().eTag(eTag).body(taskDTOResponseList);
     }
 
     @GetMapping(value = "/get-by-executor", produces = "application/json")
-    @Operation(summary = "Get task by executor id", description = "Returns task list for executor")
-    public ResponseEntity<List<TaskDTO>> getTaskListByExecutor(@RequestParam("id") @Parameter(name = "id", description = "Executor id", example = "1") int executorId, @RequestParam(value = "page", required = false) @Parameter(name = "page", description = "Pagination. Page number. Start from 0", example = "2", required = false) Integer page, @RequestParam(value = "tasks_per_page", required = false) @Parameter(name = "tasks_per_page", description = "Pagination. Tasks per page", example = "2", required = false) Integer tasksPerPage) {
+    @Operation(summary = "Get task by executor id", description = "Returns task list for executor, optionally filtered by state and priority and sorted")
+    public ResponseEntity<List<TaskDTO>> getTaskListByExecutor(@RequestParam("id") @Parameter(name = "id", description = "Executor id", example = "1") int executorId, @RequestParam(value = "page", required = false) @Parameter(name = "page", description = "Pagination. Page number. Start from 0", example = "2", required = false) Integer page, @RequestParam(value = "tasks_per_page", required = false) @Parameter(name = "tasks_per_page", description = "Pagination. Tasks per page", example = "2", required = false) Integer tasksPerPage, @RequestParam(value = "state", required = false) @Parameter(name = "state", description = "Filter. Task state", example = "WAITING", required = false) TaskState state, @RequestParam(value = "priority", required = false) @Parameter(name = "priority", description = "Filter. Task priority", example = "HI", required = false) TaskPriority priority, @RequestParam(value = "sort", defaultValue = "ID") @Parameter(name = "sort", description = "Sort field, STATE and PRIORITY sort in workflow and importance order, ties are ordered by id", example = "PRIORITY", required = false) TaskSort sort, @RequestParam(value = "direction", defaultValue = "ASC") @Parameter(name = "direction", description = "Sort direction", example = "DESC", required = false) Sort.Direction direction, WebRequest webRequest) {
+        TaskFilter filter = new TaskFilter(state, priority, sort, direction);
+
+        List<TaskView> taskList;
+        if (page == null || tasksPerPage == null) taskList = taskService.getTaskListByExecutorId(executorId, filter);
+        else {
+            checkPage(page, tasksPerPage);
+            taskList = taskService.getTaskListByExecutorId(executorId, filter, page, tasksPerPage);
+        }
 
-        List<Task> taskList;
-        if (page == null || tasksPerPage == null) taskList = taskService.getTaskListByExecutorId(executorId);
-        else taskList = taskService.getTaskListByExecutorId(executorId, page, tasksPerPage);
+        String eTag = TaskETag.of(taskList);
+        if (webRequest.checkNotModified(eTag)) return null;
 
-        ModelMapper modelMapper = new ModelMapper();
-        modelMapper.addConverter(taskToTaskDTOResponseConverter);
-        List<TaskDTO> taskDTOList = taskList.stream().map(x -> modelMapper.map(x, TaskDTO.class)).collect(Collectors.toList());
+        List<TaskDTO> taskDTOList = taskViewToTaskDTOConverter.convert(taskList);
 
 
-        return ResponseEntity.ok(taskDTOList);
+        return ResponseEntity.ok().eTag(eTag).body(taskDTOList);
+    }
+
+    @GetMapping(value = "/search", produces = "application/json")
+    @Operation(summary = "Search tasks", description = "Full-text search over titles, descriptions and comments of the tasks the caller owns or executes, best match first")
+    public ResponseEntity<List<TaskDTOResponse>> searchTasks(@RequestParam("q") @Parameter(name = "q", description = "Search query, supports quoted phrases, or and -word", example = "report \"quarter plan\"") String query, @RequestParam(value = "page", defaultValue = "0") @Parameter(name = "page", description = "Pagination. Page number. Start from 0", example = "0", required = false) int page, @RequestParam(value = "tasks_per_page", defaultValue = "20") @Parameter(name = "tasks_per_page", description = "Pagination. Tasks per page", example = "20", required = false) int tasksPerPage) {
+        if (query.isBlank() || query.length() > MAX_SEARCH_QUERY_LENGTH)
+            throw new ValidationFailException("q - must not be blank and at most " + MAX_SEARCH_QUERY_LENGTH + " characters; ");
+        checkPageSize("tasks_per_page", tasksPerPage);
+        checkPage(page, tasksPerPage);
+
+        UserPrincipal user = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        List<TaskView> taskList = taskService.searchTasks(user.id(), query, page, tasksPerPage);
+        return ResponseEntity.ok(taskViewToTaskDTOResponseConverter.convert(taskList));
+    }
+
+    @GetMapping(value = "/counters", produces = "application/json")
+    @Operation(summary = "Get task counters", description = "Counts of the tasks the caller owns and executes by state and priority")
+    public ResponseEntity<TaskCountersDTOResponse> getTaskCounters() {
+        UserPrincipal user = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        TaskCounters counters = taskCounterService.getCounters(user.id());
+
+        TaskCountersDTOResponse response = new TaskCountersDTOResponse();
+        response.setOwned(counters.owned());
+        response.setOwnedTotal(total(counters.owned()));
+        response.setExecuted(counters.executed());
+        response.setExecutedTotal(total(counters.executed()));
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Subscribe to task changes", description = "Streams the type and id of every change to the tasks the caller owns or executes as server-sent events. A client that falls too far behind is disconnected and should reload its tasks after reconnecting")
+    public SseEmitter subscribeToTaskEvents() {
+        UserPrincipal user = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        return taskEventBroadcaster.subscribe(user.id());
+    }
+
+    @GetMapping(value = "/get-by-owner/page", produces = "application/json")
+    @Operation(summary = "Get task page by owner id", description = "Returns one page of the owner's tasks ordered by id and the cursor of the next page")
+    public ResponseEntity<TaskPageDTOResponse> getTaskPageByOwner(@RequestParam("id") @Parameter(name = "id", description = "Owner id", example = "1") int ownerId, @RequestParam(value = "cursor", required = false) @Parameter(name = "cursor", description = "Pagination. nextCursor of the previous page, omit for the first page", required = false) String cursor, @RequestParam(value = "tasks_per_page", defaultValue = "20") @Parameter(name = "tasks_per_page", description = "Pagination. Tasks per page", example = "20", required = false) int tasksPerPage, @RequestParam(value = "state", required = false) @Parameter(name = "state", description = "Filter. Task state", example = "WAITING", required = false) TaskState state, @RequestParam(value = "priority", required = false) @Parameter(name = "priority", description = "Filter. Task priority", example = "HI", required = false) TaskPriority priority, WebRequest webRequest) {
+        checkPageSize("tasks_per_page", tasksPerPage);
+
+        TaskFilter filter = new TaskFilter(state, priority, TaskSort.ID, Sort.Direction.ASC);
+        TaskPage taskPage = taskService.getTaskPageByOwnerId(ownerId, filter, cursor, tasksPerPage);
+
+        String eTag = TaskETag.of(taskPage);
+        if (webRequest.checkNotModified(eTag)) return null;
+        return ResponseEntity.ok().eTag(eTag).body(toTaskPageDTOResponse(taskPage));
+    }
+
+    @GetMapping(value = "/get-by-executor/page", produces = "application/json")
+    @Operation(summary = "Get task page by executor id", description = "Returns one page of the executor's tasks ordered by id and the cursor of the next page")
+    public ResponseEntity<TaskPageDTOResponse> getTaskPageByExecutor(@RequestParam("id") @Parameter(name = "id", description = "Executor id", example = "1") int executorId, @RequestParam(value = "cursor", required = false) @Parameter(name = "cursor", description = "Pagination. nextCursor of the previous page, omit for the first page", required = false) String cursor, @RequestParam(value = "tasks_per_page", defaultValue = "20") @Parameter(name = "tasks_per_page", description = "Pagination. Tasks per page", example = "20", required = false) int tasksPerPage, @RequestParam(value = "state", required = false) @Parameter(name = "state", description = "Filter. Task state", example = "WAITING", required = false) TaskState state, @RequestParam(value = "priority", required = false) @Parameter(name = "priority", description = "Filter. Task priority", example = "HI", required = false) TaskPriority priority, WebRequest webRequest) {
+        checkPageSize("tasks_per_page", tasksPerPage);
+
+        TaskFilter filter = new TaskFilter(state, priority, TaskSort.ID, Sort.Direction.ASC);
+        TaskPage taskPage = taskService.getTaskPageByExecutorId(executorId, filter, cursor, tasksPerPage);
+
+        String eTag = TaskETag.of(taskPage);
+        if (webRequest.checkNotModified(eTag)) return null;
+        return ResponseEntity.ok().eTag(eTag).body(toTaskPageDTOResponse(taskPage));
+    }
+
+    @GetMapping(value = "/get-by-owner/export", produces = NDJSON)
+    @Operation(summary = "Export tasks by owner id", description = "Streams every task of the owner as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> exportTaskListByOwner(@RequestParam("id") @Parameter(name = "id", description = "Owner id", example = "1") int ownerId) {
+        if (!userService.existsById(ownerId)) throw new ObjectNotFoundException("User not found with id" + ownerId);
+
+        StreamingResponseBody body = outputStream -> taskExportService.exportByOwnerId(ownerId, outputStream);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    @GetMapping(value = "/get-by-executor/export", produces = NDJSON)
+    @Operation(summary = "Export tasks by executor id", description = "Streams every task of the executor as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> exportTaskListByExecutor(@RequestParam("id") @Parameter(name = "id", description = "Executor id", example = "1") int executorId) {
+        if (!userService.existsById(executorId)) throw new ObjectNotFoundException("User not found with id" + executorId);
+
+        StreamingResponseBody body = outputStream -> taskExportService.exportByExecutorId(executorId, outputStream);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    @GetMapping(value = "/{id}/comments", produces = "application/json")
+    @Operation(summary = "Get task comments", description = "Returns one page of the task comments, newest first, and the cursor of the next page")
+    public ResponseEntity<CommentPageDTOResponse> getCommentPage(@PathVariable("id") @Parameter(name = "id", description = "task id", example = "1") int taskId, @RequestParam(value = "cursor", required = false) @Parameter(name = "cursor", description = "Pagination. nextCursor of the previous page, omit for the first page", required = false) String cursor, @RequestParam(value = "comments_per_page", defaultValue = "20") @Parameter(name = "comments_per_page", description = "Pagination. Comments per page", example = "20", required = false) int commentsPerPage) {
+        checkPageSize("comments_per_page", commentsPerPage);
+
+        CommentPage commentPage = commentService.getCommentPage(taskId, cursor, commentsPerPage);
+
+        CommentPageDTOResponse commentPageDTOResponse = new CommentPageDTOResponse();
+        commentPageDTOResponse.setComments(commentPage.comments());
+        commentPageDTOResponse.setNextCursor(commentPage.nextCursor());
+        return ResponseEntity.ok(commentPageDTOResponse);
     }
 
     @DeleteMapping("/{id}")
@@ -166,46 +373,54 @@ public class TaskController {
         return ResponseEntity.ok(HttpStatus.OK);
     }
 
-    @PostMapping(value = "/add-comment", consumes = "application/json")
-    @Operation(summary = "Create comment", description = "Create comment for task by task id")
-    public ResponseEntity<HttpStatus> createComment(@RequestBody() @Valid CommentDTO commentDTO, BindingResult bindingResult) {
+    @PostMapping(value = "/add-comment", consumes = "application/json", produces = "application/json")
+    @Operation(summary = "Create comment", description = "Accepts a comment for the task by task id and returns it with its id. The comment is written in the background and shows up in the task within the flush interval")
+    public ResponseEntity<CommentDTOResponse> createComment(@RequestBody() @Valid CommentDTO commentDTO, BindingResult bindingResult) {
         BindingResultValidation.bindingResultCheck(bindingResult);
 
         Integer taskId = commentDTO.getTaskId();
-        if (!(ownerAuthorization(taskId) || executorAuthorization(taskId)))
+        if (!ownerOrExecutorAuthorization(taskId))
             throw new AuthorizationFailException("Not enough rights to add comment to this task");
 
+        UserPrincipal user = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        int commentId = commentIngestionQueue.submit(taskId, user.id(), commentDTO.getText());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(new CommentDTOResponse(commentId, commentDTO.getText(), user.id()));
+    }
 
-        ModelMapper modelMapper = new ModelMapper();
-        modelMapper.addConverter(commentDTOToCommentConverter);
-        Comment comment = modelMapper.map(commentDTO, Comment.class);
-
-        User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        comment.setCommentOwner(user);
 
-        commentService.createComment(comment);
-        return ResponseEntity.ok(HttpStatus.OK);
+    private void checkPageSize(String parameterName, int pageSize) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE)
+            throw new ValidationFailException(parameterName + " - must be between 1 and " + MAX_PAGE_SIZE + "; ");
     }
 
+    /**
+     * The offset of the page is page * tasksPerPage, it must fit in an int.
+     */
+    private void checkPage(int page, int tasksPerPage) {
+        if (page < 0) throw new ValidationFailException("page - must not be negative; ");
+        if ((long) page * tasksPerPage > Integer.MAX_VALUE)
+            throw new ValidationFailException("page - must be at most " + Integer.MAX_VALUE / tasksPerPage + " for " + tasksPerPage + " tasks per page; ");
+    }
 
-    private boolean ownerAuthorization(int taskId) {
-        User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        List<Task> taskList = taskService.getTaskListByOwnerId(user.getId());
+        private TaskPageDTOResponse toTaskPageDTOResponse(TaskPage taskPage) {
+        TaskPageDTOResponse taskPageDTOResponse = new TaskPageDTOResponse();
+        taskPageDTOResponse.setTasks(taskViewToTaskDTOResponseConverter.convert(taskPage.tasks()));
+        taskPageDTOResponse.setNextCursor(taskPage.nextCursor());
+        return taskPageDTOResponse;
+    }
 
-        for (Task task : taskList) {
-            if (task.getId() == taskId) return true;
-        }
-        return false;
+    private static long total(Map<String, Map<String, Long>> counters) {
+        return counters.values().stream().flatMap(x -> x.values().stream()).mapToLong(Long::longValue).sum();
     }
 
-    private boolean executorAuthorization(int taskId) {
-        User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        List<Task> taskList = taskService.getTaskListByExecutorId(user.getId());
+    private boolean ownerAuthorization(int taskId) {
+        UserPrincipal user = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        return taskAuthorizationService.isOwner(user.id(), taskId);
+    }
 
-        for (Task task : taskList) {
-            if (task.getId() == taskId) return true;
-        }
-        return false;
+    private boolean ownerOrExecutorAuthorization(int taskId) {
+        UserPrincipal user = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        return taskAuthorizationService.isOwnerOrExecutor(user.id(), taskId);
     }
 
 }
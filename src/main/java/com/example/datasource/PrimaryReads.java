@@ -0,0 +1,32 @@
+package com.example.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Sends the reads of the current thread to the primary while an action runs, for reads that must see the latest
+ * commit of any user, such as data that is cached beyond the replica lag. The choice is made when a connection is
+ * fetched, so a read joining a transaction that already holds a replica connection stays on the replica.
+ * Without replicas this has no effect.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T call(Supplier<T> action) {
+        if (ACTIVE.get() != null) return action.get();
+
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            ACTIVE.remove();
+        }
+    }
+
+    static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import com.example.security.UserPrincipal;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Remembers the users who committed a write transaction within the window, so that their reads stay on the primary
+ * until the replicas have caught up with their own changes. Writes made outside of a request, such as batched
+ * comments, are not attributed to a user. The window is kept per application instance.
+ */
+public class ReadYourWritesTracker implements TransactionExecutionListener {
+
+    private final Cache<Integer, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(Duration window, long maxSize) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure != null || transaction.isReadOnly()) return;
+        currentUserId().ifPresent(x -> recentWriters.put(x, Boolean.TRUE));
+    }
+
+    /**
+     * Records a write that ran without the user's principal, such as the registration of the user.
+     */
+    public void recordWriter(int userId) {
+        recentWriters.put(userId, Boolean.TRUE);
+    }
+
+    public boolean isRecentWriter() {
+        return currentUserId().map(x -> recentWriters.getIfPresent(x) != null).orElse(false);
+    }
+
+    private static Optional<Integer> currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal user) return Optional.of(user.id());
+        return Optional.empty();
+    }
+}
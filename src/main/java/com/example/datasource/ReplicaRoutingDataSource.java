@@ -0,0 +1,166 @@
+package com.example.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out replica connections to read-only transactions, in turn over the healthy replicas, and primary connections
+ * to everything else. It sits behind a LazyConnectionDataSourceProxy, so the choice is made at the first statement,
+ * once the transaction has marked itself read-only.
+ * <p>
+ * Reads of a user who recently committed a write go to the primary, see {@link ReadYourWritesTracker}, and so do reads
+ * inside {@link PrimaryReads}. A replica that
+ * refuses a connection, fails the health check or lags behind the primary by more than the allowed lag is taken out of
+ * turn until a health check passes again; with no healthy replica reads fall back to the primary.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    /**
+     * Zero when the replica has replayed everything it received, otherwise the age of the last replayed transaction.
+     */
+    private static final String LAG_QUERY = "select case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 "
+            + "else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0) end";
+
+    private final DataSource primary;
+
+    private final List<Replica> replicas = new ArrayList<>();
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    private final Duration maxLag;
+
+    private final Duration checkTimeout;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter replicaReads;
+
+    private final Counter primaryReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, ReadYourWritesTracker readYourWritesTracker,
+                                    Duration maxLag, Duration checkTimeout, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.maxLag = maxLag;
+        this.checkTimeout = checkTimeout;
+        this.replicaReads = Counter.builder("datasource.reads").tag("target", "replica")
+                .description("Read-only transactions by the database they ran on").register(meterRegistry);
+        this.primaryReads = Counter.builder("datasource.reads").tag("target", "primary")
+                .description("Read-only transactions by the database they ran on").register(meterRegistry);
+
+        replicas.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource);
+            this.replicas.add(replica);
+            Gauge.builder("datasource.replica.healthy", replica, x -> x.healthy ? 1 : 0).tag("replica", name)
+                    .description("Whether the replica takes reads").register(meterRegistry);
+        });
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) return primary.getConnection();
+
+        if (!PrimaryReads.isActive() && !readYourWritesTracker.isRecentWriter()) {
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+                if (!replica.healthy) continue;
+                try {
+                    Connection connection = replica.dataSource.getConnection();
+                    replicaReads.increment();
+                    return connection;
+                } catch (SQLException e) {
+                    markDown(replica, e.getMessage());
+                }
+            }
+        }
+        primaryReads.increment();
+        return primary.getConnection();
+    }
+
+    /**
+     * Connections with their own credentials always come from the primary, the replica pools carry fixed credentials.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    @Scheduled(fixedDelayString = "${replica.health-check-interval:5s}", initialDelayString = "${replica.health-check-interval:5s}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (!connection.isValid((int) Math.max(1, checkTimeout.toSeconds()))) {
+                    markDown(replica, "connection is not valid");
+                } else if (!maxLag.isZero() && lagSeconds(connection) > maxLag.toSeconds()) {
+                    markDown(replica, "lags more than " + maxLag);
+                } else {
+                    markUp(replica);
+                }
+            } catch (SQLException e) {
+                markDown(replica, e.getMessage());
+            }
+        }
+    }
+
+    public int getHealthyReplicaCount() {
+        return (int) replicas.stream().filter(x -> x.healthy).count();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) closeable.close();
+        }
+    }
+
+    private double lagSeconds(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout((int) Math.max(1, checkTimeout.toSeconds()));
+            try (ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+                resultSet.next();
+                return resultSet.getDouble(1);
+            }
+        }
+    }
+
+    private void markDown(Replica replica, String reason) {
+        if (replica.healthy) log.warn("Replica {} stops taking reads: {}", replica.name, reason);
+        replica.healthy = false;
+    }
+
+    private void markUp(Replica replica) {
+        if (!replica.healthy) log.info("Replica {} takes reads again", replica.name);
+        replica.healthy = true;
+    }
+
+    private static class Replica {
+
+        private final String name;
+
+        private final DataSource dataSource;
+
+        private volatile boolean healthy = true;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
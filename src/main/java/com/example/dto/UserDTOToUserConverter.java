@@ -0,0 +1,16 @@
+package com.example.dto;
+
+import org.springframework.stereotype.Component;
+import com.example.model.User;
+
+@Component
+public class UserDTOToUserConverter {
+
+    public User convert(UserDTO userDTO) {
+        User user = new User();
+        user.setUsername(userDTO.getUsername());
+        user.setMail(userDTO.getMail());
+        user.setPassword(userDTO.getPassword());
+        return user;
+    }
+}
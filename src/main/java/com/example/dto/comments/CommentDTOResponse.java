@@ -19,4 +19,10 @@ public class CommentDTOResponse {
     public CommentDTOResponse() {
     }
 
+    public CommentDTOResponse(int id, String text, Integer commentOwnerId) {
+        this.id = id;
+        this.text = text;
+        this.commentOwnerId = commentOwnerId;
+    }
+
 }
@@ -0,0 +1,22 @@
+package com.example.dto.comments;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Setter
+@Getter
+public class CommentPageDTOResponse {
+
+    @Schema(name = "comments")
+    private List<CommentDTOResponse> comments;
+
+    @Schema(name = "nextCursor", description = "Cursor of the next page, absent on the last page", example = "aWQ6MjA")
+    private String nextCursor;
+
+    public CommentPageDTOResponse() {
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.example.dto.tasks;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Setter
+@Getter
+public class TaskBatchDTOResponse {
+
+    @Schema(name = "created", example = "2")
+    private int created;
+
+    @Schema(name = "failed", example = "0")
+    private int failed;
+
+    @Schema(name = "results")
+    private List<TaskBatchItemDTOResponse> results;
+
+    public TaskBatchDTOResponse() {
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.example.dto.tasks;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+@Setter
+@Getter
+public class TaskBatchItemDTOResponse {
+
+    @Schema(name = "index", description = "Position of the task in the request", example = "0")
+    private int index;
+
+    @Schema(name = "id", description = "Id of the created task, absent when the task was rejected", example = "1")
+    private Integer id;
+
+    @Schema(name = "error", description = "Reason the task was rejected", example = "ownerId - User id not found; ")
+    private String error;
+
+    public TaskBatchItemDTOResponse() {
+    }
+
+}
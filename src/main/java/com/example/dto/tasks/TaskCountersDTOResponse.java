@@ -0,0 +1,28 @@
+package com.example.dto.tasks;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+
+@Setter
+@Getter
+public class TaskCountersDTOResponse {
+
+    @Schema(name = "owned", description = "Owned task counts by state and priority, NONE for a missing state or priority", example = "{\"WAITING\": {\"HI\": 2, \"NONE\": 1}}")
+    private Map<String, Map<String, Long>> owned;
+
+    @Schema(name = "ownedTotal", example = "3")
+    private long ownedTotal;
+
+    @Schema(name = "executed", description = "Executed task counts by state and priority, NONE for a missing state or priority", example = "{\"IN_PROGRESS\": {\"LOW\": 1}}")
+    private Map<String, Map<String, Long>> executed;
+
+    @Schema(name = "executedTotal", example = "1")
+    private long executedTotal;
+
+    public TaskCountersDTOResponse() {
+    }
+
+}
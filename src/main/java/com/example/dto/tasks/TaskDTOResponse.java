@@ -36,7 +36,10 @@ public class TaskDTOResponse {
     @Schema(name = "executorId", example = "1")
     private Integer executorId;
 
-    @Schema(name = "commentList", example = "1")
+    @Schema(name = "commentCount", description = "Total number of comments on the task", example = "1")
+    private long commentCount;
+
+    @Schema(name = "commentList", description = "Newest comments of the task, newest first. The rest are served by /api/task/{id}/comments", example = "1")
     private List<CommentDTOResponse> commentList;
 
     public TaskDTOResponse() {
@@ -1,8 +1,6 @@
 package com.example.dto.tasks;
 
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.Converter;
-import org.modelmapper.spi.MappingContext;
 import org.springframework.stereotype.Component;
 import com.example.exception.ObjectNotFoundException;
 import com.example.model.Task;
@@ -13,17 +11,12 @@ import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
-public class TaskDTOToTaskConverter implements Converter<TaskDTO, Task> {
+public class TaskDTOToTaskConverter {
 
     private final UserService userService;
 
-    @Override
-    public Task convert(MappingContext<TaskDTO, Task> mappingContext) {
-        Task task = mappingContext.getDestination();
-        TaskDTO taskDTO = mappingContext.getSource();
-        if (task == null) {
-            task = new Task();
-        }
+    public Task convert(TaskDTO taskDTO) {
+        Task task = new Task();
         task.setTitle(taskDTO.getTitle());
         task.setDescription(taskDTO.getDescription());
         task.setTaskState(taskDTO.getTaskState());
@@ -44,4 +37,39 @@ public class TaskDTOToTaskConverter implements Converter<TaskDTO, Task> {
 
         return task;
     }
+
+    /**
+     * Copies the fields present in the patch onto the task. Owner and executor are set as references, and only when
+     * they change; their existence is checked by {@link com.example.validation.TaskPatchValidation}.
+     */
+    public void applyPatch(TaskPatchDTO taskPatchDTO, Task task) {
+        if (taskPatchDTO.isPresent(TaskPatchDTO.Field.TITLE)) task.setTitle(taskPatchDTO.getTitle());
+        if (taskPatchDTO.isPresent(TaskPatchDTO.Field.DESCRIPTION)) task.setDescription(taskPatchDTO.getDescription());
+        if (taskPatchDTO.isPresent(TaskPatchDTO.Field.TASK_STATE)) task.setTaskState(taskPatchDTO.getTaskState());
+        if (taskPatchDTO.isPresent(TaskPatchDTO.Field.TASK_PRIORITY)) task.setTaskPriority(taskPatchDTO.getTaskPriority());
+        if (taskPatchDTO.isPresent(TaskPatchDTO.Field.OWNER_ID) && !sameUser(task.getOwner(), taskPatchDTO.getOwnerId())) {
+            task.setOwner(userService.getUserReference(taskPatchDTO.getOwnerId()));
+        }
+        if (taskPatchDTO.isPresent(TaskPatchDTO.Field.EXECUTOR_ID) && !sameUser(task.getExecutor(), taskPatchDTO.getExecutorId())) {
+            task.setExecutor(taskPatchDTO.getExecutorId() != null ? userService.getUserReference(taskPatchDTO.getExecutorId()) : null);
+        }
+    }
+
+    /**
+     * Maps a task whose owner and executor ids are already known to exist, referencing the users without loading them.
+     */
+    public Task convertWithUserReferences(TaskDTO taskDTO) {
+        Task task = new Task();
+        task.setTitle(taskDTO.getTitle());
+        task.setDescription(taskDTO.getDescription());
+        task.setTaskState(taskDTO.getTaskState());
+        task.setTaskPriority(taskDTO.getTaskPriority());
+        task.setOwner(taskDTO.getOwnerId() != null ? userService.getUserReference(taskDTO.getOwnerId()) : null);
+        task.setExecutor(taskDTO.getExecutorId() != null ? userService.getUserReference(taskDTO.getExecutorId()) : null);
+        return task;
+    }
+
+    private static boolean sameUser(User user, Integer userId) {
+        return user == null ? userId == null : userId != null && user.getId() == userId;
+    }
 }
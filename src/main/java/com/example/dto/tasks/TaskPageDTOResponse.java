@@ -0,0 +1,22 @@
+package com.example.dto.tasks;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Setter
+@Getter
+public class TaskPageDTOResponse {
+
+    @Schema(name = "tasks")
+    private List<TaskDTOResponse> tasks;
+
+    @Schema(name = "nextCursor", description = "Cursor of the next page, absent on the last page", example = "dGFzazoyMA")
+    private String nextCursor;
+
+    public TaskPageDTOResponse() {
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.example.dto.tasks;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import com.example.model.TaskPriority;
+import com.example.model.TaskState;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Fields of a partial task update. Absent fields are left unchanged, a field sent as null is cleared.
+ */
+@Getter
+public class TaskPatchDTO {
+
+    public enum Field {TITLE, DESCRIPTION, TASK_STATE, TASK_PRIORITY, OWNER_ID, EXECUTOR_ID}
+
+    @Schema(name = "title", example = "task-1")
+    private String title;
+
+    @Schema(name = "description", example = "some task description")
+    private String description;
+
+    @Schema(name = "taskState", example = "IN_PROGRESS")
+    private TaskState taskState;
+
+    @Schema(name = "taskPriority", example = "HI")
+    private TaskPriority taskPriority;
+
+    @Schema(name = "ownerId", example = "1")
+    private Integer ownerId;
+
+    @Schema(name = "executorId", example = "1")
+    private Integer executorId;
+
+    @JsonIgnore
+    private final Set<Field> presentFields = EnumSet.noneOf(Field.class);
+
+    public TaskPatchDTO() {
+    }
+
+    public boolean isPresent(Field field) {
+        return presentFields.contains(field);
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+        presentFields.add(Field.TITLE);
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+        presentFields.add(Field.DESCRIPTION);
+    }
+
+    public void setTaskState(TaskState taskState) {
+        this.taskState = taskState;
+        presentFields.add(Field.TASK_STATE);
+    }
+
+    public void setTaskPriority(TaskPriority taskPriority) {
+        this.taskPriority = taskPriority;
+        presentFields.add(Field.TASK_PRIORITY);
+    }
+
+    public void setOwnerId(Integer ownerId) {
+        this.ownerId = ownerId;
+        presentFields.add(Field.OWNER_ID);
+    }
+
+    public void setExecutorId(Integer executorId) {
+        this.executorId = executorId;
+        presentFields.add(Field.EXECUTOR_ID);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.dto.tasks;
+
+import org.springframework.stereotype.Component;
+import com.example.model.Task;
+
+
+@Component
+public class TaskToTaskDTOConverter {
+
+    public TaskDTO convert(Task task) {
+        TaskDTO taskDTO = new TaskDTO();
+        taskDTO.setTitle(task.getTitle());
+        taskDTO.setDescription(task.getDescription());
+        taskDTO.setTaskState(task.getTaskState());
+        taskDTO.setTaskPriority(task.getTaskPriority());
+        taskDTO.setOwnerId(task.getOwner() != null ? task.getOwner().getId() : null);
+        taskDTO.setExecutorId(task.getExecutor() != null ? task.getExecutor().getId() : null);
+        return taskDTO;
+    }
+
+}
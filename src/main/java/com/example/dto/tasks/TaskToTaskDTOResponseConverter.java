@@ -1,31 +1,27 @@
 package com.example.dto.tasks;
 
-import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.Converter;
-import org.modelmapper.spi.MappingContext;
 import org.springframework.stereotype.Component;
-import com.example.dto.comments.CommentDTOResponse;
 import com.example.model.Task;
-import com.example.service.UserService;
+import com.example.service.CommentService;
+import com.example.service.TaskCommentSummary;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
-@Getter
 @Component
 @RequiredArgsConstructor
-public class TaskToTaskDTOResponseConverter implements Converter<Task, TaskDTOResponse> {
+public class TaskToTaskDTOResponseConverter {
 
-    private final UserService userService;
+    private final CommentService commentService;
 
-    @Override
-    public TaskDTOResponse convert(MappingContext<Task, TaskDTOResponse> mappingContext) {
-        Task task = mappingContext.getSource();
-        TaskDTOResponse taskDTO = mappingContext.getDestination();
-        if (taskDTO == null) {
-            taskDTO = new TaskDTOResponse();
-        }
+    public TaskDTOResponse convert(Task task) {
+        Map<Integer, TaskCommentSummary> summaries = commentService.getCommentSummaries(List.of(task.getId()));
+        return convert(task, summaries.getOrDefault(task.getId(), TaskCommentSummary.EMPTY));
+    }
+
+    public TaskDTOResponse convert(Task task, TaskCommentSummary commentSummary) {
+        TaskDTOResponse taskDTO = new TaskDTOResponse();
         taskDTO.setTitle(task.getTitle());
         taskDTO.setDescription(task.getDescription());
         taskDTO.setTaskState(task.getTaskState());
@@ -38,14 +34,8 @@ public class TaskToTaskDTOResponseConverter implements Converter<Task, TaskDTORe
             taskDTO.setExecutorId(task.getExecutor().getId());
         } else taskDTO.setExecutorId(null);
 
-        CommentDTOResponse commentDTOResponse = new CommentDTOResponse();
-        List<CommentDTOResponse> commentDTOResponseList = task.getCommentList().stream().map(x -> {
-            commentDTOResponse.setId(x.getId());
-            commentDTOResponse.setText(x.getText());
-            commentDTOResponse.setCommentOwnerId(x.getCommentOwner().getId());
-            return commentDTOResponse;
-        }).collect(Collectors.toList());
-        taskDTO.setCommentList(commentDTOResponseList);
+        taskDTO.setCommentCount(commentSummary.commentCount());
+        taskDTO.setCommentList(commentSummary.latestComments());
 
         return taskDTO;
     }
@@ -0,0 +1,14 @@
+package com.example.dto.tasks;
+
+import com.example.model.TaskPriority;
+import com.example.model.TaskState;
+
+/**
+ * Read-only projection of the task columns the list endpoints return, selected without loading entities.
+ */
+public record TaskView(int id, String title, String description, TaskState taskState, TaskPriority taskPriority,
+                       Integer ownerId, Integer executorId, long version) {
+
+    public static final String SELECT = "select new com.example.dto.tasks.TaskView(t.id, t.title, t.description, t.taskState, t.taskPriority, t.owner.id, t.executor.id, t.version) from Task t ";
+
+}
@@ -0,0 +1,30 @@
+package com.example.dto.tasks;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class TaskViewToTaskDTOConverter {
+
+    public TaskDTO convert(TaskView taskView) {
+        TaskDTO taskDTO = new TaskDTO();
+        taskDTO.setTitle(taskView.title());
+        taskDTO.setDescription(taskView.description());
+        taskDTO.setTaskState(taskView.taskState());
+        taskDTO.setTaskPriority(taskView.taskPriority());
+        taskDTO.setOwnerId(taskView.ownerId());
+        taskDTO.setExecutorId(taskView.executorId());
+        return taskDTO;
+    }
+
+    public List<TaskDTO> convert(List<TaskView> taskViewList) {
+        List<TaskDTO> taskDTOList = new ArrayList<>(taskViewList.size());
+        for (TaskView taskView : taskViewList) {
+            taskDTOList.add(convert(taskView));
+        }
+        return taskDTOList;
+    }
+
+}
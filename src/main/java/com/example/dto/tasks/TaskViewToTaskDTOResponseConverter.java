@@ -0,0 +1,45 @@
+package com.example.dto.tasks;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import com.example.service.CommentService;
+import com.example.service.TaskCommentSummary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+public class TaskViewToTaskDTOResponseConverter {
+
+    private final CommentService commentService;
+
+    public List<TaskDTOResponse> convert(List<TaskView> taskViewList) {
+        List<Integer> taskIds = new ArrayList<>(taskViewList.size());
+        for (TaskView taskView : taskViewList) {
+            taskIds.add(taskView.id());
+        }
+        Map<Integer, TaskCommentSummary> summaries = commentService.getCommentSummaries(taskIds);
+
+        List<TaskDTOResponse> taskDTOResponseList = new ArrayList<>(taskViewList.size());
+        for (TaskView taskView : taskViewList) {
+            taskDTOResponseList.add(convert(taskView, summaries.getOrDefault(taskView.id(), TaskCommentSummary.EMPTY)));
+        }
+        return taskDTOResponseList;
+    }
+
+    public TaskDTOResponse convert(TaskView taskView, TaskCommentSummary commentSummary) {
+        TaskDTOResponse taskDTO = new TaskDTOResponse();
+        taskDTO.setTitle(taskView.title());
+        taskDTO.setDescription(taskView.description());
+        taskDTO.setTaskState(taskView.taskState());
+        taskDTO.setTaskPriority(taskView.taskPriority());
+        taskDTO.setOwnerId(taskView.ownerId());
+        taskDTO.setExecutorId(taskView.executorId());
+        taskDTO.setCommentCount(commentSummary.commentCount());
+        taskDTO.setCommentList(commentSummary.latestComments());
+        return taskDTO;
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.example.exception;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -31,4 +32,20 @@ public class RestResponseEntityExceptionHandler extends ResponseEntityExceptionH
         bodyOfErrorResponse += ex.getMessage();
         return handleExceptionInternal(ex, bodyOfErrorResponse, new HttpHeaders(), HttpStatus.CONFLICT, request);
     }
+
+    @ExceptionHandler(value = {VersionConflictException.class, OptimisticLockingFailureException.class})
+    protected ResponseEntity<Object> versionConflict(RuntimeException ex, WebRequest request) {
+        String bodyOfErrorResponse = "Version conflict. ";
+        bodyOfErrorResponse += ex instanceof VersionConflictException ? ex.getMessage() : "The task was changed concurrently, reload it and retry";
+        return handleExceptionInternal(ex, bodyOfErrorResponse, new HttpHeaders(), HttpStatus.CONFLICT, request);
+    }
+
+    @ExceptionHandler(value = ServiceOverloadedException.class)
+    protected ResponseEntity<Object> serviceOverloaded(RuntimeException ex, WebRequest request) {
+        String bodyOfErrorResponse = "Service unavailable. ";
+        bodyOfErrorResponse += ex.getMessage();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return handleExceptionInternal(ex, bodyOfErrorResponse, headers, HttpStatus.SERVICE_UNAVAILABLE, request);
+    }
 }
@@ -4,10 +4,16 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "task")
+@DynamicUpdate
 @Getter
 @Setter
 @Table(name = "task")
@@ -16,7 +22,8 @@ public class Task {
 
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_id_generator")
+    @SequenceGenerator(name = "task_id_generator", sequenceName = "task_id_seq", allocationSize = 50)
     private int id;
 
     @Column(name = "title")
@@ -26,9 +33,11 @@ public class Task {
     private String description;
 
     @Column(name = "state")
+    @Enumerated(EnumType.STRING)
     private TaskState taskState;
 
     @Column(name = "priority")
+    @Enumerated(EnumType.STRING)
     private TaskPriority taskPriority;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -39,6 +48,13 @@ public class Task {
     @JoinColumn(name = "executor_id", referencedColumnName = "id")
     private User executor;
 
+    /**
+     * Bumped on every change of the task and on every new comment, the ETag of the task resources.
+     */
+    @Version
+    @Column(name = "version")
+    private long version;
+
     @OneToMany(mappedBy = "task", cascade = CascadeType.ALL)
     private List<Comment> commentList;
 
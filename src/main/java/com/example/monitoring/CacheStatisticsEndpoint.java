@@ -0,0 +1,74 @@
+package com.example.monitoring;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+import com.example.security.JwtTokenProvider;
+import com.example.security.TaskAuthorizationService;
+import com.example.security.UserPrincipalCache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exposes hit ratios of the Hibernate second-level cache regions and of the in-process security caches
+ * under {@code /actuator/cachestats}.
+ */
+@Component
+@Endpoint(id = "cachestats")
+@RequiredArgsConstructor
+public class CacheStatisticsEndpoint {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final JwtTokenProvider jwtTokenProvider;
+
+    private final UserPrincipalCache userPrincipalCache;
+
+    private final TaskAuthorizationService taskAuthorizationService;
+
+    @ReadOperation
+    public Map<String, Object> cacheStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Map<String, Object> secondLevel = new LinkedHashMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(regionName);
+            secondLevel.put(regionName, regionStatistics(region.getHitCount(), region.getMissCount(), region.getPutCount(), region.getElementCountInMemory()));
+        }
+        if (statistics.isStatisticsEnabled()) {
+            secondLevel.put("query-results", regionStatistics(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount(), -1));
+        }
+
+        Map<String, Object> security = new LinkedHashMap<>();
+        security.put("verified-tokens", caffeineStatistics(jwtTokenProvider.getVerifiedTokenCacheStats(), jwtTokenProvider.getVerifiedTokenCacheSize()));
+        security.put("user-principals", caffeineStatistics(userPrincipalCache.getStats(), userPrincipalCache.getSize()));
+        taskAuthorizationService.getIndexStats().ifPresent(stats -> security.put("task-participants", caffeineStatistics(stats, -1)));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        result.put("secondLevelCache", secondLevel);
+        result.put("security", security);
+        return result;
+    }
+
+    private static Map<String, Object> caffeineStatistics(CacheStats stats, long size) {
+        return regionStatistics(stats.hitCount(), stats.missCount(), stats.loadCount(), size);
+    }
+
+    private static Map<String, Object> regionStatistics(long hits, long misses, long puts, long size) {
+        Map<String, Object> region = new LinkedHashMap<>();
+        region.put("hits", hits);
+        region.put("misses", misses);
+        region.put("puts", puts);
+        if (size >= 0) region.put("size", size);
+        region.put("hitRatio", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        return region;
+    }
+}
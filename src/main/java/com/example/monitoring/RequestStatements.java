@@ -0,0 +1,60 @@
+package com.example.monitoring;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * SQL statements run while serving one request, split into those run before the handler (authentication) and those
+ * run by the handler itself. Recording is synchronized, because the statements of an async request are recorded on
+ * the thread that completes it.
+ */
+public final class RequestStatements {
+
+    private static final int MAX_DISTINCT_STATEMENTS = 256;
+
+    private final Map<String, Integer> executions = new LinkedHashMap<>();
+
+    private int total;
+
+    private int beforeHandler = -1;
+
+    synchronized void record(String sql) {
+        total++;
+        if (executions.containsKey(sql) || executions.size() < MAX_DISTINCT_STATEMENTS) executions.merge(sql, 1, Integer::sum);
+    }
+
+    synchronized void markHandlerStart() {
+        if (beforeHandler < 0) beforeHandler = total;
+    }
+
+    public synchronized int getTotal() {
+        return total;
+    }
+
+    /**
+     * Statements run from the start of the controller method on; zero if no handler was reached.
+     */
+    public synchronized int getHandlerCount() {
+        return beforeHandler < 0 ? 0 : total - beforeHandler;
+    }
+
+    public synchronized Map<String, Integer> getExecutions() {
+        return executions;
+    }
+
+    /**
+     * Statements prepared at least {@code threshold} times, the usual signature of an N+1 select.
+     */
+    public synchronized Map<String, Integer> getRepeatedStatements(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        executions.forEach((sql, count) -> {
+            if (count >= threshold) repeated.put(sql, count);
+        });
+        return repeated;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return total + " statements " + executions;
+    }
+}
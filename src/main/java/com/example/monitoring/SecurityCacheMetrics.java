@@ -0,0 +1,55 @@
+package com.example.monitoring;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import com.example.security.JwtTokenProvider;
+import com.example.security.TaskAuthorizationService;
+import com.example.security.UserPrincipalCache;
+
+import java.util.function.Function;
+
+/**
+ * Publishes hits, misses and sizes of the in-process security caches as {@code security.cache.*} meters,
+ * the same numbers {@link CacheStatisticsEndpoint} reports.
+ */
+@Component
+@RequiredArgsConstructor
+public class SecurityCacheMetrics implements MeterBinder {
+
+    private final JwtTokenProvider jwtTokenProvider;
+
+    private final UserPrincipalCache userPrincipalCache;
+
+    private final TaskAuthorizationService taskAuthorizationService;
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        bind(registry, "verified-tokens", jwtTokenProvider, JwtTokenProvider::getVerifiedTokenCacheStats);
+        Gauge.builder("security.cache.size", jwtTokenProvider, JwtTokenProvider::getVerifiedTokenCacheSize)
+                .tag("cache", "verified-tokens").register(registry);
+
+        bind(registry, "user-principals", userPrincipalCache, UserPrincipalCache::getStats);
+        Gauge.builder("security.cache.size", userPrincipalCache, UserPrincipalCache::getSize)
+                .tag("cache", "user-principals").register(registry);
+
+        if (taskAuthorizationService.getIndexStats().isPresent()) {
+            bind(registry, "task-participants", taskAuthorizationService, x -> x.getIndexStats().orElse(CacheStats.empty()));
+        }
+    }
+
+    /**
+     * Meters only hold their state object weakly, so the counters read through the long-lived cache owner.
+     */
+    private static <T> void bind(MeterRegistry registry, String cache, T owner, Function<T, CacheStats> stats) {
+        FunctionCounter.builder("security.cache.requests", owner, x -> stats.apply(x).hitCount())
+                .tag("cache", cache).tag("result", "hit").register(registry);
+        FunctionCounter.builder("security.cache.requests", owner, x -> stats.apply(x).missCount())
+                .tag("cache", cache).tag("result", "miss").register(registry);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.monitoring;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Attributes every statement run through the application DataSource to the request running on the current thread,
+ * see {@link StatementCountingDataSource}. The NDJSON export carries the statements of its request over to the async
+ * thread that streams it. Statements outside of a request, such as the batches of the comment ingestion thread,
+ * are not counted.
+ */
+@Component
+public class SqlStatementCounter {
+
+    public static final String REQUEST_ATTRIBUTE = SqlStatementCounter.class.getName() + ".statements";
+
+    private final ThreadLocal<RequestStatements> current = new ThreadLocal<>();
+
+    public RequestStatements start() {
+        return start(new RequestStatements());
+    }
+
+    /**
+     * Counts the statements of the current thread into {@code statements}, which may already hold those
+     * of the same request run on another thread.
+     */
+    public RequestStatements start(RequestStatements statements) {
+        current.set(statements);
+        return statements;
+    }
+
+    public void stop() {
+        current.remove();
+    }
+
+    public void markHandlerStart() {
+        RequestStatements statements = current.get();
+        if (statements != null) statements.markHandlerStart();
+    }
+
+    void record(String sql) {
+        RequestStatements statements = current.get();
+        if (statements != null) statements.record(sql);
+    }
+}
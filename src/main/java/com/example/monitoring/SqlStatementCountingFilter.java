@@ -0,0 +1,89 @@
+package com.example.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements of every request, publishes them per endpoint as {@code http.server.requests.sql.statements}
+ * and logs requests that run more statements than the budget or repeat one statement often enough to look like an N+1 select.
+ * The counted statements are left in the {@link SqlStatementCounter#REQUEST_ATTRIBUTE} request attribute.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlStatementCountingFilter extends OncePerRequestFilter {
+
+    private final SqlStatementCounter sqlStatementCounter;
+
+    private final MeterRegistry meterRegistry;
+
+    private final int statementBudget;
+
+    private final int repeatedStatementThreshold;
+
+    public SqlStatementCountingFilter(SqlStatementCounter sqlStatementCounter, MeterRegistry meterRegistry,
+                                      @Value("${sql.statement-budget:10}") int statementBudget,
+                                      @Value("${sql.repeated-statement-threshold:5}") int repeatedStatementThreshold) {
+        this.sqlStatementCounter = sqlStatementCounter;
+        this.meterRegistry = meterRegistry;
+        this.statementBudget = statementBudget;
+        this.repeatedStatementThreshold = repeatedStatementThreshold;
+    }
+
+    /**
+     * The async dispatch that completes a request keeps counting into the statements of the request and records them.
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain) throws ServletException, IOException {
+        RequestStatements statements = isAsyncDispatch(request) && request.getAttribute(SqlStatementCounter.REQUEST_ATTRIBUTE) instanceof RequestStatements started
+                ? started : new RequestStatements();
+        request.setAttribute(SqlStatementCounter.REQUEST_ATTRIBUTE, statements);
+        sqlStatementCounter.start(statements);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            sqlStatementCounter.stop();
+            if (!request.isAsyncStarted()) record(request, statements);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestStatements statements) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .description("SQL statements run per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statements.getTotal());
+
+        if (statements.getTotal() > statementBudget) {
+            log.warn("{} {} ran {} SQL statements, over the budget of {}", request.getMethod(), uri, statements.getTotal(), statementBudget);
+        }
+        Map<String, Integer> repeated = statements.getRepeatedStatements(repeatedStatementThreshold);
+        if (!repeated.isEmpty()) {
+            log.warn("{} {} repeated statements, possible N+1 select: {}", request.getMethod(), uri, repeated);
+        }
+    }
+}
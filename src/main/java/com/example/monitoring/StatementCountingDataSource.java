@@ -0,0 +1,118 @@
+package com.example.monitoring;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Hands out connections that report every statement to the {@link SqlStatementCounter}, whoever runs it: Hibernate,
+ * a JdbcTemplate or plain JDBC. A prepared statement counts once when it is prepared, however often it is executed
+ * or batched; a plain statement counts once per SQL string it executes.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    private final SqlStatementCounter sqlStatementCounter;
+
+    public StatementCountingDataSource(DataSource targetDataSource, SqlStatementCounter sqlStatementCounter) {
+        super(targetDataSource);
+        this.sqlStatementCounter = sqlStatementCounter;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return countingConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return countingConnection(super.getConnection(username, password));
+    }
+
+    private Connection countingConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Statement counting connection for " + target;
+                case "unwrap":
+                    return ((Class<?>) args[0]).isInstance(proxy) ? proxy : target.unwrap((Class<?>) args[0]);
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy) || target.isWrapperFor((Class<?>) args[0]);
+                case "prepareStatement":
+                case "prepareCall":
+                    sqlStatementCounter.record((String) args[0]);
+                    break;
+                case "createStatement":
+                    Statement statement = (Statement) StatementCountingDataSource.invoke(target, method, args);
+                    return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Statement.class}, new StatementHandler(statement, (Connection) proxy));
+                default:
+                    break;
+            }
+            return StatementCountingDataSource.invoke(target, method, args);
+        }
+    }
+
+    private class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+
+        private final Connection connection;
+
+        StatementHandler(Statement target, Connection connection) {
+            this.target = target;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "getConnection":
+                    return connection;
+                case "execute":
+                case "executeQuery":
+                case "executeUpdate":
+                case "executeLargeUpdate":
+                case "addBatch":
+                    if (args != null && args.length > 0 && args[0] instanceof String sql) sqlStatementCounter.record(sql);
+                    break;
+                default:
+                    break;
+            }
+            return StatementCountingDataSource.invoke(target, method, args);
+        }
+    }
+}
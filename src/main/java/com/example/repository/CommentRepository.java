@@ -1,9 +1,34 @@
 package com.example.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import com.example.dto.comments.CommentDTOResponse;
 import com.example.model.Comment;
 
+import java.util.List;
+
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Integer> {
+
+    /**
+     * Binds the task ids as one array, an in list would take a bind parameter per id and fail beyond the 65535
+     * parameters of the PostgreSQL protocol.
+     */
+    @Query(value = "select c.task_id, count(*) from comment c where c.task_id = any(?1) group by c.task_id", nativeQuery = true)
+    List<Object[]> countByTaskIds(Integer[] taskIds);
+
+    /**
+     * Reads the newest comments of each task with one backward scan of comment_task_id_idx per task, so tasks
+     * with many comments cost no more than tasks with a few.
+     */
+    @Query(value = "select c.id, c.text, c.user_id, c.task_id from unnest(?1) as t(id) "
+            + "join lateral (select id, text, user_id, task_id from comment where task_id = t.id order by id desc limit ?2) c on true "
+            + "order by c.task_id, c.id desc", nativeQuery = true)
+    List<Object[]> findLatestByTaskIds(Integer[] taskIds, int latestPerTask);
+
+    @Query("select new com.example.dto.comments.CommentDTOResponse(c.id, c.text, c.commentOwner.id) from Comment c where c.task.id = ?1 and c.id < ?2 order by c.id desc")
+    List<CommentDTOResponse> findPageByTaskId(int taskId, int beforeId, Pageable pageable);
+
 }
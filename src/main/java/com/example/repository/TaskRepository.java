@@ -2,10 +2,14 @@ package com.example.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import com.example.model.Task;
 import com.example.model.User;
+import com.example.security.TaskParticipants;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Integer> {
@@ -18,4 +22,42 @@ public interface TaskRepository extends JpaRepository<Task, Integer> {
 
     List<Task> getTasksByExecutor(User executor, Pageable pageable);
 
+    boolean existsByIdAndOwner_Id(int id, int ownerId);
+
+    boolean existsByIdAndExecutor_Id(int id, int executorId);
+
+    @Query("select count(t) > 0 from Task t where t.id = ?1 and (t.owner.id = ?2 or t.executor.id = ?2)")
+    boolean existsByIdAndParticipant(int id, int userId);
+
+    @Query("select t.version from Task t where t.id = ?1")
+    Optional<Long> findVersionById(int id);
+
+    @Query("select new com.example.security.TaskParticipants(t.id, t.owner.id, t.executor.id) from Task t where t.id = ?1")
+    Optional<TaskParticipants> findParticipantsById(int id);
+
+    @Query("select new com.example.security.TaskParticipants(t.id, t.owner.id, t.executor.id) from Task t where t.id in ?1")
+    List<TaskParticipants> findParticipantsByIds(Collection<Integer> ids);
+
+    /**
+     * Ranks the tasks a user owns or executes by how well their title, description and comments match a web search query.
+     * The task arms probe the (owner_id, search_vector) and (executor_id, search_vector) GIN indexes, the comment arm
+     * only looks at the comments of the user's tasks, so the cost follows the user's tasks rather than the number of rows
+     * matching the query across all users. The query is inlined rather than taken from a CTE so that the planner can
+     * estimate how many rows it matches. A task matching in several places sums its ranks.
+     */
+    @Query(value = "with hits as ("
+            + "select t.id, ts_rank(t.search_vector, websearch_to_tsquery('simple', ?1)) as rank from task t "
+            + "where t.owner_id = ?2 and t.search_vector @@ websearch_to_tsquery('simple', ?1) "
+            + "union "
+            + "select t.id, ts_rank(t.search_vector, websearch_to_tsquery('simple', ?1)) from task t "
+            + "where t.executor_id = ?2 and t.search_vector @@ websearch_to_tsquery('simple', ?1) "
+            + "union all "
+            + "select c.task_id, ts_rank(c.search_vector, websearch_to_tsquery('simple', ?1)) from comment c "
+            + "where c.task_id = any(array(select t.id from task t where t.owner_id = ?2 or t.executor_id = ?2)) "
+            + "and c.search_vector @@ websearch_to_tsquery('simple', ?1)), "
+            + "ranked as (select id, sum(rank) as rank from hits group by id) "
+            + "select t.id, t.title, t.description, t.state, t.priority, t.owner_id, t.executor_id, t.version from ranked r join task t on t.id = r.id "
+            + "order by r.rank desc, t.id limit ?3 offset ?4", nativeQuery = true)
+    List<Object[]> search(String query, int userId, int limit, int offset);
+
 }
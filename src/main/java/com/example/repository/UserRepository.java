@@ -1,16 +1,35 @@
 package com.example.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import com.example.model.User;
+import com.example.security.UserPrincipal;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Integer> {
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<User> getUserByMail(String mail);
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<User> getUserByUsername(String username);
 
+    @Query("select new com.example.security.UserPrincipal(u.id, u.mail, u.username) from User u where u.mail = ?1")
+    Optional<UserPrincipal> findPrincipalByMail(String mail);
+
+    @Query("select u.id from User u where u.id in ?1")
+    List<Integer> findExistingIds(Collection<Integer> ids);
+
+    @Query("select u.id from User u where u.id > ?1 order by u.id")
+    List<Integer> findIdsAfter(int afterId, Pageable pageable);
+
 }
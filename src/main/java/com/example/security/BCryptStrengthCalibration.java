@@ -0,0 +1,38 @@
+package com.example.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Picks the BCrypt cost whose hash time on this machine is closest to, without exceeding, the target latency.
+ * Every extra cost round doubles the work, so a single measurement at the minimum cost is enough to extrapolate.
+ */
+public final class BCryptStrengthCalibration {
+
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+
+    private BCryptStrengthCalibration() {
+    }
+
+    public static int calibrate(Duration targetLatency, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(minStrength);
+        encoder.encode(SAMPLE_PASSWORD);
+
+        long start = System.nanoTime();
+        encoder.encode(SAMPLE_PASSWORD);
+        long elapsed = Math.max(1, System.nanoTime() - start);
+
+        return strengthFor(targetLatency.toNanos(), elapsed, minStrength, maxStrength);
+    }
+
+    static int strengthFor(long targetNanos, long nanosAtMinStrength, int minStrength, int maxStrength) {
+        int strength = minStrength;
+        long expected = nanosAtMinStrength;
+        while (strength < maxStrength && expected * 2 <= targetNanos) {
+            strength++;
+            expected *= 2;
+        }
+        return strength;
+    }
+}
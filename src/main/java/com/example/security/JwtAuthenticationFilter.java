@@ -1,29 +1,44 @@
 
 package com.example.security;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
 
-    private final UserDetailsServiceImpl userDetailsService;
+    private final UserPrincipalCache userPrincipalCache;
+
+    private final Counter validTokens;
+
+    private final Counter invalidTokens;
+
+    private final Counter unknownUserTokens;
+
+    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider, UserPrincipalCache userPrincipalCache, MeterRegistry meterRegistry) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.userPrincipalCache = userPrincipalCache;
+        this.validTokens = verificationCounter(meterRegistry, "valid");
+        this.invalidTokens = verificationCounter(meterRegistry, "invalid");
+        this.unknownUserTokens = verificationCounter(meterRegistry, "unknown_user");
+    }
 
     @NonNull
     @Override
@@ -31,13 +46,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         SecurityContext sc = SecurityContextHolder.getContext();
         String token = jwtTokenProvider.resolveToken(request);
 
-        if (token != null && !jwtTokenProvider.isTokenExpired(token)) {
+        if (token != null) {
 
-            String username = jwtTokenProvider.getUsername(token);
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            String mail = jwtTokenProvider.verify(token).map(Claims::getSubject).orElse(null);
+            Optional<UserPrincipal> principalOptional = mail == null ? Optional.empty() : userPrincipalCache.getPrincipal(mail);
+            if (mail == null) invalidTokens.increment();
+            else if (principalOptional.isEmpty()) unknownUserTokens.increment();
+            else validTokens.increment();
+            if (principalOptional.isPresent() && SecurityContextHolder.getContext().getAuthentication() == null) {
+                UserPrincipal principal = principalOptional.get();
 
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
 
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
@@ -48,4 +67,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private static Counter verificationCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("jwt.verifications")
+                .description("Bearer tokens seen by the authentication filter, by verification outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 }
@@ -1,43 +1,95 @@
 package com.example.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtTokenProvider {
 
-    @Value("${token.signing.key}")
-    private String jwtSigningKey;
+    private static final long TOKEN_VALIDITY_MS = 86400000;
 
-    public String getUsername(String token) {
-        return Jwts.parser().verifyWith(getSigningKey()).build().parseSignedClaims(token).getPayload().getSubject();
+    private final SecretKey signingKey;
+
+    private final JwtParser jwtParser;
+
+    /**
+     * Claims of tokens whose signature has already been verified, keyed by the SHA-256 digest of the token.
+     * Every entry expires together with its token, so a hit never outlives the token it was verified for.
+     */
+    private final Cache<String, Claims> verifiedTokenCache;
+
+    public JwtTokenProvider(@Value("${token.signing.key}") String jwtSigningKey,
+                            @Value("${token.cache.max-size:10000}") long cacheMaxSize) {
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSigningKey));
+        this.jwtParser = Jwts.parser().verifyWith(signingKey).build();
+        this.verifiedTokenCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
     }
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSigningKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public String getUsername(String token) {
+        return verify(token).map(Claims::getSubject).orElse(null);
     }
 
-    public String createToken(UserDetails userDetails) {
+    public String createToken(String mail) {
         Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + 86400000);
+        Date expiryDate = new Date(now.getTime() + TOKEN_VALIDITY_MS);
 
-        return Jwts.builder().setSubject(userDetails.getUsername()).setIssuedAt(new Date()).setExpiration(expiryDate).signWith(SignatureAlgorithm.HS256, getSigningKey()).compact();
+        return Jwts.builder().setSubject(mail).setIssuedAt(new Date()).setExpiration(expiryDate).signWith(SignatureAlgorithm.HS256, signingKey).compact();
     }
 
     public boolean isTokenExpired(String token) {
-        Date date = Jwts.parser().verifyWith(getSigningKey()).build().parseSignedClaims(token).getPayload().getExpiration();
+        return verify(token).isEmpty();
+    }
+
+    /**
+     * Returns the claims of a valid, unexpired token, verifying its signature only on the first call per token.
+     */
+    public Optional<Claims> verify(String token) {
+        String digest = digest(token);
+        Claims claims = verifiedTokenCache.getIfPresent(digest);
+        if (claims != null) return Optional.of(claims);
+
+        try {
+            claims = jwtParser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (claims.getExpiration() != null && claims.getExpiration().before(new Date())) return Optional.empty();
+
+        verifiedTokenCache.put(digest, claims);
+        return Optional.of(claims);
+    }
+
+    public CacheStats getVerifiedTokenCacheStats() {
+        return verifiedTokenCache.stats();
+    }
 
-        return date.before(new Date());
+    public long getVerifiedTokenCacheSize() {
+        return verifiedTokenCache.estimatedSize();
     }
 
     public String resolveToken(HttpServletRequest request) {
@@ -49,4 +101,34 @@ public class JwtTokenProvider {
         return null;
     }
 
+    private static class TokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String digest, Claims claims, long currentTime) {
+            if (claims.getExpiration() == null) return TimeUnit.MILLISECONDS.toNanos(TOKEN_VALIDITY_MS);
+
+            long untilExpiry = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, Math.min(untilExpiry, TOKEN_VALIDITY_MS)));
+        }
+
+        @Override
+        public long expireAfterUpdate(String digest, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String digest, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
 }
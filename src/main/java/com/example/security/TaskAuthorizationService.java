@@ -0,0 +1,96 @@
+package com.example.security;
+
+import com.example.datasource.PrimaryReads;
+import com.example.repository.TaskRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Answers whether a user owns or executes a task without loading the task graph.
+ * With the participants index enabled, owner and executor ids are cached per task id and
+ * invalidated by {@link com.example.service.TaskService} whenever they may change. They are loaded from the primary:
+ * a participant other than the writer reading them from a lagging replica would cache the old participants until
+ * the next change.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TaskAuthorizationService {
+
+    private final TaskRepository taskRepository;
+
+    private final Cache<Integer, TaskParticipants> participantsIndex;
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public TaskAuthorizationService(TaskRepository taskRepository,
+                                    @Value("${task.authorization.index.enabled:true}") boolean indexEnabled,
+                                    @Value("${task.authorization.index.max-size:100000}") long indexMaxSize) {
+        this.taskRepository = taskRepository;
+        this.participantsIndex = indexEnabled ? Caffeine.newBuilder().maximumSize(indexMaxSize).recordStats().build() : null;
+    }
+
+    public boolean isOwner(int userId, int taskId) {
+        if (participantsIndex == null) return taskRepository.existsByIdAndOwner_Id(taskId, userId);
+        return getParticipants(taskId).map(x -> x.isOwner(userId)).orElse(false);
+    }
+
+    public boolean isExecutor(int userId, int taskId) {
+        if (participantsIndex == null) return taskRepository.existsByIdAndExecutor_Id(taskId, userId);
+        return getParticipants(taskId).map(x -> x.isExecutor(userId)).orElse(false);
+    }
+
+    public boolean isOwnerOrExecutor(int userId, int taskId) {
+        if (participantsIndex == null) return taskRepository.existsByIdAndParticipant(taskId, userId);
+        return getParticipants(taskId).map(x -> x.isOwner(userId) || x.isExecutor(userId)).orElse(false);
+    }
+
+    /**
+     * Drops the cached participants of a task now and again after the surrounding transaction commits,
+     * so a concurrent reader cannot re-cache the pre-commit state.
+     */
+    public void invalidate(int taskId) {
+        if (participantsIndex == null) return;
+
+        invalidations.incrementAndGet();
+        participantsIndex.invalidate(taskId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidations.incrementAndGet();
+                    participantsIndex.invalidate(taskId);
+                }
+            });
+        }
+    }
+
+    public Optional<CacheStats> getIndexStats() {
+        return Optional.ofNullable(participantsIndex).map(Cache::stats);
+    }
+
+    /**
+     * Loads outside of the cache's compute lock, so that a virtual thread waiting on the database does not pin its carrier.
+     * A load that overlapped an invalidation is dropped again instead of caching participants that may be stale.
+     */
+    private Optional<TaskParticipants> getParticipants(int taskId) {
+        TaskParticipants participants = participantsIndex.getIfPresent(taskId);
+        if (participants != null) return Optional.of(participants);
+
+        long invalidationsBeforeLoad = invalidations.get();
+        Optional<TaskParticipants> loaded = PrimaryReads.call(() -> taskRepository.findParticipantsById(taskId));
+        loaded.ifPresent(x -> {
+            participantsIndex.put(taskId, x);
+            if (invalidations.get() != invalidationsBeforeLoad) participantsIndex.invalidate(taskId);
+        });
+        return loaded;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.security;
+
+public record TaskParticipants(int taskId, Integer ownerId, Integer executorId) {
+
+    public boolean isOwner(int userId) {
+        return ownerId != null && ownerId == userId;
+    }
+
+    public boolean isExecutor(int userId) {
+        return executorId != null && executorId == userId;
+    }
+
+}
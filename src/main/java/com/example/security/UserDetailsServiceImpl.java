@@ -2,15 +2,17 @@ package com.example.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
+import com.example.datasource.PrimaryReads;
 import com.example.exception.ObjectNotFoundException;
 import com.example.model.User;
 import com.example.repository.UserRepository;
 import java.util.Optional;
 
 @Component
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
@@ -19,13 +21,26 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         this.userRepository = userRepository;
     }
 
+    /**
+     * Reads from the primary, so that a user can log in right after registering while the replicas catch up.
+     */
     @Override
     public UserDetails loadUserByUsername(String mail) throws ObjectNotFoundException {
-        Optional<User> user = userRepository.getUserByMail(mail);
+        Optional<User> user = PrimaryReads.call(() -> userRepository.getUserByMail(mail));
         if (user.isPresent()){
             return user.get();
         }
         else
             throw new ObjectNotFoundException("User not found");
     }
+
+    /**
+     * Stores a password re-hashed with the current cost after a successful login with an older, cheaper hash.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = (User) userDetails;
+        user.setPassword(newPassword);
+        return userRepository.save(user);
+    }
 }
@@ -0,0 +1,30 @@
+package com.example.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Immutable snapshot of an authenticated user. Users log in and are looked up by mail,
+ * so {@link #getUsername()} returns the mail while {@link #username()} keeps the display name.
+ */
+public record UserPrincipal(int id, String mail, String username) implements UserDetails {
+
+    @Override
+    public String getUsername() {
+        return mail;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return Collections.emptyList();
+    }
+
+}
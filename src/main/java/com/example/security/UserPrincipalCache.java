@@ -0,0 +1,60 @@
+package com.example.security;
+
+import com.example.datasource.PrimaryReads;
+import com.example.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+@Component
+public class UserPrincipalCache {
+
+    private final UserRepository userRepository;
+
+    private final Cache<String, UserPrincipal> principalCache;
+
+    public UserPrincipalCache(UserRepository userRepository,
+                              @Value("${user.principal-cache.max-size:10000}") long maxSize,
+                              @Value("${user.principal-cache.ttl:10m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.principalCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Loads outside of the cache's compute lock, so that a virtual thread waiting on the database does not pin its carrier.
+     * Loads from the primary, so that the token of a user who just registered is accepted while the replicas catch up.
+     */
+    public Optional<UserPrincipal> getPrincipal(String mail) {
+        UserPrincipal principal = principalCache.getIfPresent(mail);
+        if (principal != null) return Optional.of(principal);
+
+        Optional<UserPrincipal> loaded = PrimaryReads.call(() -> userRepository.findPrincipalByMail(mail));
+        loaded.ifPresent(x -> principalCache.put(mail, x));
+        return loaded;
+    }
+
+    public void invalidate(String mail) {
+        principalCache.invalidate(mail);
+    }
+
+    public void invalidateAll() {
+        principalCache.invalidateAll();
+    }
+
+    public CacheStats getStats() {
+        return principalCache.stats();
+    }
+
+    public long getSize() {
+        return principalCache.estimatedSize();
+    }
+}
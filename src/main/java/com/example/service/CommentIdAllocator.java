@@ -0,0 +1,39 @@
+package com.example.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out comment ids before the comment is written, one sequence call per {@link #BLOCK_SIZE} ids.
+ * The sequence steps by the block size, so every value it returns starts a block of its own. The sequence call runs
+ * under a {@link ReentrantLock} rather than a monitor, so that a virtual thread waiting on the database does not pin its carrier.
+ */
+@Component
+@RequiredArgsConstructor
+public class CommentIdAllocator {
+
+    static final int BLOCK_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long next;
+
+    private long blockEnd;
+
+    public int nextId() {
+        lock.lock();
+        try {
+            if (next == blockEnd) {
+                next = jdbcTemplate.queryForObject("select nextval('comment_id_seq')", Long.class);
+                blockEnd = next + BLOCK_SIZE;
+            }
+            return Math.toIntExact(next++);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
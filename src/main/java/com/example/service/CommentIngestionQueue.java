@@ -0,0 +1,196 @@
+package com.example.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.example.exception.ServiceOverloadedException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+
+/**
+ * Accepts comments into a bounded in-memory queue and writes them in batches from a single background thread.
+ * A batch is written once it reaches the batch size or once its first comment has waited for the flush interval.
+ * <p>
+ * Durability: an accepted comment has its final id, but it is only in memory until its batch commits, normally
+ * within the flush interval. A graceful shutdown writes everything accepted before the queue closes; a crash loses
+ * what was not written yet. If a batch fails its comments are retried one by one and only those that still fail,
+ * such as comments on a task deleted in the meantime, are dropped and counted in comment.ingestion.failed.
+ * A full queue refuses new comments with a 503.
+ */
+@Slf4j
+@Component
+public class CommentIngestionQueue {
+
+    private final BlockingQueue<PendingComment> queue;
+
+    private final int batchSize;
+
+    private final Duration flushInterval;
+
+    private final Duration shutdownTimeout;
+
+    private final IntSupplier idAllocator;
+
+    private final Consumer<List<PendingComment>> writer;
+
+    private final Thread flusher;
+
+    /**
+     * Comments accepted and not yet written or dropped, including the batch being written.
+     */
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final Object flushed = new Object();
+
+    private volatile boolean closed;
+
+    private final Counter failedComments;
+
+    private final DistributionSummary batchSizes;
+
+    @Autowired
+    public CommentIngestionQueue(@Value("${comment.ingestion.queue-capacity:10000}") int queueCapacity,
+                                 @Value("${comment.ingestion.batch-size:100}") int batchSize,
+                                 @Value("${comment.ingestion.flush-interval:50ms}") Duration flushInterval,
+                                 @Value("${comment.ingestion.shutdown-timeout:10s}") Duration shutdownTimeout,
+                                 CommentIdAllocator commentIdAllocator,
+                                 CommentService commentService,
+                                 MeterRegistry meterRegistry) {
+        this(queueCapacity, batchSize, flushInterval, shutdownTimeout, commentIdAllocator::nextId, commentService::createComments, meterRegistry);
+    }
+
+    CommentIngestionQueue(int queueCapacity, int batchSize, Duration flushInterval, Duration shutdownTimeout,
+                          IntSupplier idAllocator, Consumer<List<PendingComment>> writer, MeterRegistry meterRegistry) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.shutdownTimeout = shutdownTimeout;
+        this.idAllocator = idAllocator;
+        this.writer = writer;
+        this.failedComments = Counter.builder("comment.ingestion.failed")
+                .description("Accepted comments that could not be written").register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("comment.ingestion.batch.size")
+                .description("Comments written per batch").register(meterRegistry);
+        Gauge.builder("comment.ingestion.queue.size", queue, BlockingQueue::size)
+                .description("Comments waiting to be written").register(meterRegistry);
+
+        this.flusher = new Thread(this::run, "comment-ingestion");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Queues the comment and returns its id. The comment becomes visible once its batch is written.
+     */
+    public int submit(int taskId, int commentOwnerId, String text) {
+        if (closed) throw new ServiceOverloadedException("Comment ingestion is shutting down, try again later");
+
+        PendingComment comment = new PendingComment(idAllocator.getAsInt(), taskId, commentOwnerId, text);
+        pending.incrementAndGet();
+        if (!queue.offer(comment)) {
+            written(1);
+            throw new ServiceOverloadedException("Too many comments, try again later");
+        }
+        return comment.id();
+    }
+
+    /**
+     * Waits until every comment accepted before the call has been written or dropped.
+     * Returns false if that did not happen within the timeout.
+     */
+    public boolean flush(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (flushed) {
+            while (pending.get() > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) return false;
+                TimeUnit.NANOSECONDS.timedWait(flushed, remaining);
+            }
+        }
+        return true;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Stops accepting comments and waits for the queue to be written. The flusher thread is not interrupted while
+     * it writes, an interrupt would fail the connection checkout of the batch.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        closed = true;
+        flusher.join(shutdownTimeout.toMillis());
+        if (flusher.isAlive()) {
+            log.warn("Comment ingestion stopped with {} comments not written", pending.get());
+            flusher.interrupt();
+        }
+    }
+
+    private void run() {
+        List<PendingComment> batch = new ArrayList<>(batchSize);
+        while (!(closed && queue.isEmpty()) && !Thread.currentThread().isInterrupted()) {
+            try {
+                PendingComment first = queue.poll(flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+                if (first == null) continue;
+
+                batch.add(first);
+                long deadline = System.nanoTime() + flushInterval.toNanos();
+                queue.drainTo(batch, batchSize - batch.size());
+                while (batch.size() < batchSize && !closed) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) break;
+                    PendingComment next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next != null) batch.add(next);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (!batch.isEmpty()) write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<PendingComment> batch) {
+        try {
+            writer.accept(batch);
+            batchSizes.record(batch.size());
+        } catch (RuntimeException batchFailure) {
+            log.warn("Writing a batch of {} comments failed, retrying them one by one", batch.size(), batchFailure);
+            for (PendingComment comment : batch) {
+                try {
+                    writer.accept(List.of(comment));
+                } catch (RuntimeException e) {
+                    failedComments.increment();
+                    log.error("Dropping comment {} on task {}", comment.id(), comment.taskId(), e);
+                }
+            }
+        } finally {
+            written(batch.size());
+        }
+    }
+
+    private void written(int comments) {
+        if (pending.addAndGet(-comments) == 0) {
+            synchronized (flushed) {
+                flushed.notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.service;
+
+import com.example.dto.comments.CommentDTOResponse;
+import java.util.List;
+
+public record CommentPage(List<CommentDTOResponse> comments, String nextCursor) {
+
+}
@@ -1,26 +1,142 @@
 package com.example.service;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.example.dto.comments.CommentDTOResponse;
+import com.example.exception.ObjectNotFoundException;
 import com.example.model.Comment;
+import com.example.model.Task;
 import com.example.repository.CommentRepository;
+import com.example.repository.TaskRepository;
+import com.example.security.TaskParticipants;
+import com.example.util.IdCursor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 
 @Service
+@Timed(value = "comment.service", histogram = true)
 @Transactional(readOnly = true)
 public class CommentService {
     private final CommentRepository commentRepository;
 
-    public CommentService(CommentRepository commentRepository) {
+    private final TaskRepository taskRepository;
+
+    private final EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final int latestCommentsPerTask;
+
+    public CommentService(CommentRepository commentRepository, TaskRepository taskRepository, EntityManager entityManager, JdbcTemplate jdbcTemplate,
+                          ApplicationEventPublisher eventPublisher,
+                          @Value("${task.response.latest-comments:3}") int latestCommentsPerTask) {
         this.commentRepository = commentRepository;
+        this.taskRepository = taskRepository;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.latestCommentsPerTask = latestCommentsPerTask;
     }
 
+    /**
+     * Inserts the comments with JDBC batches and bumps the version of their tasks, whose responses embed the comments,
+     * with one update per task in id order so that concurrent batches lock tasks in the same order. The update bypasses
+     * Hibernate, so the cached tasks are evicted now and again after commit.
+     */
     @Transactional
-    public void createComment(Comment comment){
-        commentRepository.save(comment);
+    public void createComments(List<PendingComment> comments) {
+        jdbcTemplate.batchUpdate("insert into comment (id, text, user_id, task_id) values (?, ?, ?, ?)", comments, comments.size(), (statement, comment) -> {
+            statement.setInt(1, comment.id());
+            statement.setString(2, comment.text());
+            statement.setInt(3, comment.commentOwnerId());
+            statement.setInt(4, comment.taskId());
+        });
+
+        Set<Integer> taskIds = new TreeSet<>();
+        comments.forEach(x -> taskIds.add(x.taskId()));
+        jdbcTemplate.batchUpdate("update task set version = version + 1 where id = ?", taskIds, taskIds.size(), (statement, taskId) -> statement.setInt(1, taskId));
+        evictTasks(taskIds);
+
+        Map<Integer, Set<Integer>> recipients = new HashMap<>();
+        for (TaskParticipants participants : taskRepository.findParticipantsByIds(taskIds)) {
+            Set<Integer> recipientIds = new HashSet<>(2);
+            if (participants.ownerId() != null) recipientIds.add(participants.ownerId());
+            if (participants.executorId() != null) recipientIds.add(participants.executorId());
+            recipients.put(participants.taskId(), recipientIds);
+        }
+        for (PendingComment comment : comments) {
+            eventPublisher.publishEvent(new TaskEvent(TaskEventType.COMMENT_ADDED, comment.taskId(), recipients.getOrDefault(comment.taskId(), Set.of())));
+        }
     }
 
     public Optional<Comment> getComment(int id){
         return commentRepository.findById(id);
     }
+
+    /**
+     * Returns the comment count and newest comments of every task with two queries, whatever the number of tasks.
+     * Tasks without comments are absent from the result.
+     */
+    public Map<Integer, TaskCommentSummary> getCommentSummaries(Collection<Integer> taskIds) {
+        if (taskIds.isEmpty()) return Map.of();
+
+        Integer[] distinctTaskIds = taskIds.stream().distinct().toArray(Integer[]::new);
+        Map<Integer, List<CommentDTOResponse>> latestComments = new HashMap<>();
+        if (latestCommentsPerTask > 0) {
+            for (Object[] row : commentRepository.findLatestByTaskIds(distinctTaskIds, latestCommentsPerTask)) {
+                Integer taskId = ((Number) row[3]).intValue();
+                Integer commentOwnerId = row[2] != null ? ((Number) row[2]).intValue() : null;
+                latestComments.computeIfAbsent(taskId, x -> new ArrayList<>(latestCommentsPerTask))
+                        .add(new CommentDTOResponse(((Number) row[0]).intValue(), (String) row[1], commentOwnerId));
+            }
+        }
+
+        Map<Integer, TaskCommentSummary> summaries = new HashMap<>();
+        for (Object[] row : commentRepository.countByTaskIds(distinctTaskIds)) {
+            Integer taskId = ((Number) row[0]).intValue();
+            summaries.put(taskId, new TaskCommentSummary(((Number) row[1]).longValue(), latestComments.getOrDefault(taskId, List.of())));
+        }
+        return summaries;
+    }
+
+    private void evictTasks(Set<Integer> taskIds) {
+        var cache = entityManager.getEntityManagerFactory().getCache();
+        taskIds.forEach(x -> cache.evict(Task.class, x));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    taskIds.forEach(x -> cache.evict(Task.class, x));
+                }
+            });
+        }
+    }
+
+    public CommentPage getCommentPage(int taskId, String cursor, int commentsPerPage) {
+        if (!taskRepository.existsById(taskId)) throw new ObjectNotFoundException("Task not found");
+
+        int beforeId = IdCursor.decode(cursor, Integer.MAX_VALUE);
+        List<CommentDTOResponse> commentList = commentRepository.findPageByTaskId(taskId, beforeId, PageRequest.of(0, commentsPerPage + 1));
+
+        boolean hasNext = commentList.size() > commentsPerPage;
+        if (hasNext) commentList = commentList.subList(0, commentsPerPage);
+        return new CommentPage(commentList, hasNext ? IdCursor.encode(commentList.get(commentList.size() - 1).getId()) : null);
+    }
 }
@@ -0,0 +1,7 @@
+package com.example.service;
+
+/**
+ * Comment that has been acknowledged to its author and waits in {@link CommentIngestionQueue} to be written.
+ */
+public record PendingComment(int id, int taskId, int commentOwnerId, String text) {
+}
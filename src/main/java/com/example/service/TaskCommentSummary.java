@@ -0,0 +1,10 @@
+package com.example.service;
+
+import com.example.dto.comments.CommentDTOResponse;
+import java.util.List;
+
+public record TaskCommentSummary(long commentCount, List<CommentDTOResponse> latestComments) {
+
+    public static final TaskCommentSummary EMPTY = new TaskCommentSummary(0, List.of());
+
+}
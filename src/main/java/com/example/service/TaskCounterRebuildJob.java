@@ -0,0 +1,68 @@
+package com.example.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import com.example.repository.UserRepository;
+
+import java.util.List;
+
+/**
+ * Periodically recounts the tasks of every user, one user per transaction, and corrects counters that drifted
+ * from the tasks, for example after tasks were changed by hand in the database.
+ */
+@Slf4j
+@Component
+public class TaskCounterRebuildJob {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final TaskCounterService taskCounterService;
+
+    private final UserRepository userRepository;
+
+    private final int usersPerPage;
+
+    private final Counter correctedCounters;
+
+    public TaskCounterRebuildJob(TaskCounterService taskCounterService, UserRepository userRepository,
+                                 @Value("${task.counters.rebuild.users-per-page:500}") int usersPerPage,
+                                 MeterRegistry meterRegistry) {
+        this.taskCounterService = taskCounterService;
+        this.userRepository = userRepository;
+        this.usersPerPage = usersPerPage;
+        this.correctedCounters = Counter.builder("task.counters.corrected")
+                .description("Task counters overwritten by the rebuild job").register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${task.counters.rebuild.interval:6h}", fixedDelayString = "${task.counters.rebuild.interval:6h}")
+    public void rebuildAll() {
+        int corrected = 0;
+        List<Integer> userIds = userRepository.findIdsAfter(0, PageRequest.of(0, usersPerPage));
+        while (!userIds.isEmpty()) {
+            for (int userId : userIds) corrected += rebuild(userId);
+            userIds = userRepository.findIdsAfter(userIds.get(userIds.size() - 1), PageRequest.of(0, usersPerPage));
+        }
+        if (corrected > 0) log.warn("Corrected {} drifted task counters", corrected);
+    }
+
+    private int rebuild(int userId) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                int corrected = taskCounterService.rebuild(userId);
+                correctedCounters.increment(corrected);
+                return corrected;
+            } catch (ConcurrencyFailureException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    log.warn("Skipping the task counters of user {}, its tasks kept changing during the recount", userId);
+                    return 0;
+                }
+            }
+        }
+    }
+}
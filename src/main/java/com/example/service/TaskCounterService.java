@@ -0,0 +1,173 @@
+package com.example.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.example.model.Task;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps the task_counter table in step with the tasks. Every change is applied as count deltas in the transaction
+ * of the task change, so reading the counters of a user is a primary key range scan of at most a few dozen rows.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TaskCounterService {
+
+    public static final String NONE = "NONE";
+
+    private static final String OWNER = "OWNER";
+
+    private static final String EXECUTOR = "EXECUTOR";
+
+    private static final String COUNT_QUERY = "select coalesce(state, 'NONE'), coalesce(priority, 'NONE'), count(*) from task "
+            + "where %s = ? group by coalesce(state, 'NONE'), coalesce(priority, 'NONE')";
+
+    /**
+     * Counter rows are locked in key order so that two transactions changing the same counters cannot deadlock.
+     */
+    private static final Comparator<CounterKey> KEY_ORDER = Comparator.comparingInt(CounterKey::userId)
+            .thenComparing(CounterKey::role).thenComparing(CounterKey::state).thenComparing(CounterKey::priority);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * The recount touches no entities and runs in a plain JDBC transaction, because the JPA dialect cannot apply
+     * an isolation level once Hibernate releases connections after each transaction.
+     */
+    private final TransactionTemplate rebuildTransaction;
+
+    public TaskCounterService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rebuildTransaction = new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+        this.rebuildTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    public TaskCounters getCounters(int userId) {
+        Map<String, Map<String, Long>> owned = new TreeMap<>();
+        Map<String, Map<String, Long>> executed = new TreeMap<>();
+        jdbcTemplate.query("select role, state, priority, task_count from task_counter where user_id = ? and task_count <> 0", rs -> {
+            Map<String, Map<String, Long>> counters = OWNER.equals(rs.getString(1)) ? owned : executed;
+            counters.computeIfAbsent(rs.getString(2), x -> new TreeMap<>()).put(rs.getString(3), rs.getLong(4));
+        }, userId);
+        return new TaskCounters(owned, executed);
+    }
+
+    /**
+     * Moves the task from the counters of {@code before} to those of {@code after}, either of which is null
+     * for a task that is created or deleted.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void taskChanged(TaskCounterSnapshot before, TaskCounterSnapshot after) {
+        Map<CounterKey, Long> deltas = new TreeMap<>(KEY_ORDER);
+        addDeltas(deltas, before, -1);
+        addDeltas(deltas, after, 1);
+        apply(deltas);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void tasksCreated(List<Task> tasks) {
+        Map<CounterKey, Long> deltas = new TreeMap<>(KEY_ORDER);
+        tasks.forEach(x -> addDeltas(deltas, TaskCounterSnapshot.of(x), 1));
+        apply(deltas);
+    }
+
+    /**
+     * Recounts the tasks of the user and overwrites the counters that drifted, returning how many did. Repeatable read
+     * makes a task change that commits while the recount runs fail the overwrite of a counter it touched instead of
+     * being lost, the caller retries then. The read-only transaction of the class is not supported here, the recount
+     * would join it instead of starting its own.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int rebuild(int userId) {
+        return rebuildTransaction.execute(x -> recount(userId));
+    }
+
+    private int recount(int userId) {
+        Map<CounterKey, Long> actual = new HashMap<>();
+        countTasks(actual, userId, OWNER, "owner_id");
+        countTasks(actual, userId, EXECUTOR, "executor_id");
+
+        Map<CounterKey, Long> stored = new HashMap<>();
+        jdbcTemplate.query("select role, state, priority, task_count from task_counter where user_id = ?",
+                rs -> { stored.put(new CounterKey(userId, rs.getString(1), rs.getString(2), rs.getString(3)), rs.getLong(4)); }, userId);
+
+        Map<CounterKey, Long> corrections = new TreeMap<>(KEY_ORDER);
+        actual.forEach((key, count) -> {
+            if (!count.equals(stored.get(key))) corrections.put(key, count - stored.getOrDefault(key, 0L));
+        });
+        stored.forEach((key, count) -> {
+            if (!actual.containsKey(key) && count != 0) corrections.put(key, -count);
+        });
+        apply(corrections);
+        return corrections.size();
+    }
+
+    private void countTasks(Map<CounterKey, Long> counts, int userId, String role, String userColumn) {
+        jdbcTemplate.query(String.format(COUNT_QUERY, userColumn),
+                rs -> { counts.put(new CounterKey(userId, role, rs.getString(1), rs.getString(2)), rs.getLong(3)); }, userId);
+    }
+
+    private static void addDeltas(Map<CounterKey, Long> deltas, TaskCounterSnapshot task, long delta) {
+        if (task == null) return;
+
+        String state = task.state() != null ? task.state().name() : NONE;
+        String priority = task.priority() != null ? task.priority().name() : NONE;
+        if (task.ownerId() != null) deltas.merge(new CounterKey(task.ownerId(), OWNER, state, priority), delta, Long::sum);
+        if (task.executorId() != null) deltas.merge(new CounterKey(task.executorId(), EXECUTOR, state, priority), delta, Long::sum);
+    }
+
+    /**
+     * Updates the existing counters in one batch and creates the missing ones. A counter created concurrently
+     * by another transaction is picked up by the second update.
+     */
+    private void apply(Map<CounterKey, Long> deltas) {
+        deltas.values().removeIf(x -> x == 0);
+        if (deltas.isEmpty()) return;
+
+        List<Map.Entry<CounterKey, Long>> entries = new ArrayList<>(deltas.entrySet());
+        int[] updated = update(entries);
+
+        List<Map.Entry<CounterKey, Long>> missing = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) missing.add(entries.get(i));
+        }
+        if (missing.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate("insert into task_counter (user_id, role, state, priority, task_count) values (?, ?, ?, ?, 0) on conflict do nothing",
+                missing, missing.size(), (statement, entry) -> {
+                    CounterKey key = entry.getKey();
+                    statement.setInt(1, key.userId());
+                    statement.setString(2, key.role());
+                    statement.setString(3, key.state());
+                    statement.setString(4, key.priority());
+                });
+        update(missing);
+    }
+
+    private int[] update(List<Map.Entry<CounterKey, Long>> entries) {
+        int[][] updated = jdbcTemplate.batchUpdate("update task_counter set task_count = task_count + ? where user_id = ? and role = ? and state = ? and priority = ?",
+                entries, entries.size(), (statement, entry) -> {
+                    CounterKey key = entry.getKey();
+                    statement.setLong(1, entry.getValue());
+                    statement.setInt(2, key.userId());
+                    statement.setString(3, key.role());
+                    statement.setString(4, key.state());
+                    statement.setString(5, key.priority());
+                });
+        return updated.length > 0 ? updated[0] : new int[0];
+    }
+
+    private record CounterKey(int userId, String role, String state, String priority) {
+    }
+}
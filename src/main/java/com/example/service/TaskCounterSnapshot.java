@@ -0,0 +1,16 @@
+package com.example.service;
+
+import com.example.model.Task;
+import com.example.model.TaskPriority;
+import com.example.model.TaskState;
+
+/**
+ * The fields of a task that decide which counters it is counted in.
+ */
+public record TaskCounterSnapshot(Integer ownerId, Integer executorId, TaskState state, TaskPriority priority) {
+
+    public static TaskCounterSnapshot of(Task task) {
+        return new TaskCounterSnapshot(task.getOwner() != null ? task.getOwner().getId() : null,
+                task.getExecutor() != null ? task.getExecutor().getId() : null, task.getTaskState(), task.getTaskPriority());
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.service;
+
+import java.util.Map;
+
+/**
+ * Task counts of one user by state and then priority, for the tasks the user owns and executes.
+ * A missing state or priority is counted under {@link TaskCounterService#NONE}.
+ */
+public record TaskCounters(Map<String, Map<String, Long>> owned, Map<String, Map<String, Long>> executed) {
+
+}
@@ -0,0 +1,26 @@
+package com.example.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.example.model.Task;
+import com.example.model.User;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Change of a task, delivered to the users in {@code recipientIds}: the owner and executor before and after the change.
+ * Subscribers receive only the type and task id and fetch the task themselves.
+ */
+public record TaskEvent(TaskEventType type, int taskId, @JsonIgnore Set<Integer> recipientIds) {
+
+    public static Set<Integer> participants(Task task) {
+        Set<Integer> participants = new HashSet<>(2);
+        addParticipant(participants, task.getOwner());
+        addParticipant(participants, task.getExecutor());
+        return participants;
+    }
+
+    private static void addParticipant(Set<Integer> participants, User user) {
+        if (user != null) participants.add(user.getId());
+    }
+}
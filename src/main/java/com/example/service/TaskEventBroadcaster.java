@@ -0,0 +1,163 @@
+package com.example.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans task events out to the server-sent event streams of their owners and executors once the changing transaction
+ * has committed. Publishing only queues the event in each subscriber's bounded buffer; a small pool writes the buffers
+ * to the connections, one drain at a time per subscriber. A subscriber whose buffer is full is too slow to keep up and
+ * is disconnected, it reconnects and reloads its tasks instead of holding events in memory without limit.
+ */
+@Slf4j
+@Component
+public class TaskEventBroadcaster {
+
+    private final Map<Integer, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private final ExecutorService sender;
+
+    private final int bufferSize;
+
+    private final Duration timeout;
+
+    private final Counter droppedSubscribers;
+
+    @Autowired
+    public TaskEventBroadcaster(@Value("${task.events.buffer-size:256}") int bufferSize,
+                                @Value("${task.events.timeout:30m}") Duration timeout,
+                                @Value("${task.events.sender-threads:2}") int senderThreads,
+                                MeterRegistry meterRegistry) {
+        this(bufferSize, timeout, Executors.newFixedThreadPool(senderThreads, new SenderThreadFactory()), meterRegistry);
+    }
+
+    TaskEventBroadcaster(int bufferSize, Duration timeout, ExecutorService sender, MeterRegistry meterRegistry) {
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        this.sender = sender;
+        this.droppedSubscribers = Counter.builder("task.events.dropped.subscribers")
+                .description("Event streams closed because their buffer was full").register(meterRegistry);
+        Gauge.builder("task.events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open task event streams").register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(int userId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(userId, emitter, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        subscribers.computeIfAbsent(userId, x -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        subscriberCount.incrementAndGet();
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publish(TaskEvent event) {
+        for (Integer userId : event.recipientIds()) {
+            Set<Subscriber> userSubscribers = subscribers.get(userId);
+            if (userSubscribers == null) continue;
+
+            for (Subscriber subscriber : userSubscribers) {
+                if (subscriber.buffer().offer(event)) schedule(subscriber);
+                else drop(subscriber);
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(x -> x.emitter().complete()));
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.draining().compareAndSet(false, true)) return;
+        try {
+            sender.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            subscriber.draining().set(false);
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            TaskEvent event;
+            while ((event = subscriber.buffer().poll()) != null) {
+                subscriber.emitter().send(SseEmitter.event().name(event.type().name()).data(event, MediaType.APPLICATION_JSON));
+            }
+        } catch (IOException | IllegalStateException e) {
+            remove(subscriber);
+            return;
+        } finally {
+            subscriber.draining().set(false);
+        }
+        // an event offered after the last poll but before the flag was cleared found the drain still running
+        if (!subscriber.buffer().isEmpty()) schedule(subscriber);
+    }
+
+    private void drop(Subscriber subscriber) {
+        if (!remove(subscriber)) return;
+        droppedSubscribers.increment();
+        log.debug("Closing the task event stream of user {}, {} events behind", subscriber.userId(), bufferSize);
+        subscriber.emitter().complete();
+    }
+
+    private boolean remove(Subscriber subscriber) {
+        Set<Subscriber> userSubscribers = subscribers.get(subscriber.userId());
+        if (userSubscribers == null || !userSubscribers.remove(subscriber)) return false;
+
+        subscriberCount.decrementAndGet();
+        subscribers.computeIfPresent(subscriber.userId(), (userId, x) -> x.isEmpty() ? null : x);
+        return true;
+    }
+
+    private record Subscriber(int userId, SseEmitter emitter, BlockingQueue<TaskEvent> buffer, AtomicBoolean draining) {
+
+        Subscriber(int userId, SseEmitter emitter, BlockingQueue<TaskEvent> buffer) {
+            this(userId, emitter, buffer, new AtomicBoolean());
+        }
+    }
+
+    private static class SenderThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "task-events-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.service;
+
+public enum TaskEventType {
+    CREATED,
+    UPDATED,
+    STATE_CHANGED,
+    EXECUTOR_SET,
+    COMMENT_ADDED,
+    DELETED
+}
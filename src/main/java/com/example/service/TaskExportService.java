@@ -0,0 +1,136 @@
+package com.example.service;
+
+import com.example.dto.comments.CommentDTOResponse;
+import com.example.dto.tasks.TaskDTOResponse;
+import com.example.model.TaskPriority;
+import com.example.model.TaskState;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+
+/**
+ * Writes a user's tasks as newline-delimited JSON while reading them through a forward-only cursor,
+ * so memory stays flat regardless of how many tasks the user has.
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class TaskExportService {
+
+    private static final String EXPORT_QUERY = "select t.id, t.title, t.description, t.state, t.priority, t.owner_id, t.executor_id, "
+            + "c.id as comment_id, c.text as comment_text, c.user_id as comment_user_id "
+            + "from task t left join comment c on c.task_id = t.id where t.%s = ? order by t.id, c.id";
+
+    private static final int FLUSH_EVERY_TASKS = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${task.export.fetch-size:500}")
+    private int fetchSize;
+
+    public void exportByOwnerId(int ownerId, OutputStream outputStream) {
+        export("owner_id", ownerId, outputStream);
+    }
+
+    public void exportByExecutorId(int executorId, OutputStream outputStream) {
+        export("executor_id", executorId, outputStream);
+    }
+
+    private void export(String userColumn, int userId, OutputStream outputStream) {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            NdjsonTaskWriter taskWriter = new NdjsonTaskWriter(generator);
+
+            jdbcTemplate.query(connection -> {
+                var statement = connection.prepareStatement(String.format(EXPORT_QUERY, userColumn), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                statement.setInt(1, userId);
+                return statement;
+            }, taskWriter::processRow);
+
+            taskWriter.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Rows arrive ordered by task id, one per comment, so a task is complete once the next task id shows up.
+     */
+    private static class NdjsonTaskWriter {
+
+        private final JsonGenerator generator;
+
+        private int currentTaskId = -1;
+
+        private TaskDTOResponse currentTask;
+
+        private int writtenTasks;
+
+        NdjsonTaskWriter(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        void processRow(ResultSet rs) throws SQLException {
+            int taskId = rs.getInt("id");
+            if (taskId != currentTaskId) {
+                writeCurrentTask();
+                currentTaskId = taskId;
+                currentTask = mapTask(rs);
+            }
+
+            int commentId = rs.getInt("comment_id");
+            if (!rs.wasNull()) {
+                CommentDTOResponse comment = new CommentDTOResponse();
+                comment.setId(commentId);
+                comment.setText(rs.getString("comment_text"));
+                comment.setCommentOwnerId((Integer) rs.getObject("comment_user_id"));
+                currentTask.getCommentList().add(comment);
+            }
+        }
+
+        void finish() throws IOException {
+            writeCurrentTask();
+            generator.flush();
+        }
+
+        private void writeCurrentTask() {
+            if (currentTask == null) return;
+            try {
+                generator.writeObject(currentTask);
+                generator.writeRaw('\n');
+                if (++writtenTasks == 1 || writtenTasks % FLUSH_EVERY_TASKS == 0) generator.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static TaskDTOResponse mapTask(ResultSet rs) throws SQLException {
+            TaskDTOResponse task = new TaskDTOResponse();
+            task.setTitle(rs.getString("title"));
+            task.setDescription(rs.getString("description"));
+            String state = rs.getString("state");
+            task.setTaskState(state == null ? null : TaskState.valueOf(state));
+            String priority = rs.getString("priority");
+            task.setTaskPriority(priority == null ? null : TaskPriority.valueOf(priority));
+            task.setOwnerId((Integer) rs.getObject("owner_id"));
+            task.setExecutorId((Integer) rs.getObject("executor_id"));
+            task.setCommentList(new ArrayList<>());
+            return task;
+        }
+    }
+}
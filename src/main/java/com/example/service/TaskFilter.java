@@ -0,0 +1,35 @@
+package com.example.service;
+
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Sort;
+import com.example.model.TaskPriority;
+import com.example.model.TaskState;
+
+/**
+ * Optional state and priority conditions and the order of a task list query; null conditions match every task.
+ */
+public record TaskFilter(TaskState state, TaskPriority priority, TaskSort sort, Sort.Direction direction) {
+
+    public static final TaskFilter NONE = new TaskFilter(null, null, TaskSort.ID, Sort.Direction.ASC);
+
+    public TaskFilter {
+        if (sort == null) sort = TaskSort.ID;
+        if (direction == null) direction = Sort.Direction.ASC;
+    }
+
+    String where() {
+        return (state != null ? "and t.taskState = :state " : "") + (priority != null ? "and t.taskPriority = :priority " : "");
+    }
+
+    String orderBy() {
+        String order = direction.isDescending() ? " desc" : "";
+        if (sort == TaskSort.ID) return "order by t.id" + order;
+        return "order by " + sort.getExpression() + order + ", t.id" + order;
+    }
+
+    <T> TypedQuery<T> bind(TypedQuery<T> query) {
+        if (state != null) query.setParameter("state", state);
+        if (priority != null) query.setParameter("priority", priority);
+        return query;
+    }
+}
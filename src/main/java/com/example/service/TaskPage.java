@@ -0,0 +1,8 @@
+package com.example.service;
+
+import com.example.dto.tasks.TaskView;
+import java.util.List;
+
+public record TaskPage(List<TaskView> tasks, String nextCursor) {
+
+}
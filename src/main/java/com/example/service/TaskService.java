@@ -1,20 +1,33 @@
 package com.example.service;
 
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.persistence.TypedQuery;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import com.example.dto.tasks.TaskView;
 import com.example.exception.ObjectNotFoundException;
+import com.example.exception.VersionConflictException;
 import com.example.model.Task;
+import com.example.model.TaskPriority;
 import com.example.model.TaskState;
 import com.example.model.User;
 import com.example.repository.TaskRepository;
 import com.example.repository.UserRepository;
+import com.example.security.TaskAuthorizationService;
+import com.example.util.IdCursor;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Service
+@Timed(value = "task.service", histogram = true)
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class TaskService {
@@ -25,54 +38,140 @@ public class TaskService {
 
     private final EntityManager entityManager;
 
+    private final TaskAuthorizationService taskAuthorizationService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TaskCounterService taskCounterService;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
     @Transactional
     public void createTask(Task task) {
         taskRepository.save(task);
+        taskAuthorizationService.invalidate(task.getId());
+        taskCounterService.taskChanged(null, TaskCounterSnapshot.of(task));
+        eventPublisher.publishEvent(new TaskEvent(TaskEventType.CREATED, task.getId(), TaskEvent.participants(task)));
+    }
+
+    /**
+     * Persists the tasks in JDBC batches of hibernate.jdbc.batch_size, clearing the persistence context
+     * after each batch so large requests do not accumulate managed entities.
+     */
+    @Transactional
+    public List<Task> createTasks(List<Task> taskList) {
+        taskCounterService.tasksCreated(taskList);
+        for (int i = 0; i < taskList.size(); i++) {
+            Task task = taskList.get(i);
+            entityManager.persist(task);
+            eventPublisher.publishEvent(new TaskEvent(TaskEventType.CREATED, task.getId(), TaskEvent.participants(task)));
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return taskList;
     }
 
     public Optional<Task> getTaskById(int id) {
-        TypedQuery<Task> query = entityManager.createQuery("select t from Task t left join fetch t.owner o left join fetch t.executor e left join fetch t.commentList c WHERE t.id = ?1", Task.class);
-        List<Task> taskList = query.setParameter(1, id).getResultList();
-        if (taskList.isEmpty()) return Optional.empty();
-        return Optional.ofNullable(taskList.get(0));
+        return taskRepository.findById(id);
+    }
+
+    public Optional<Long> getTaskVersion(int id) {
+        return taskRepository.findVersionById(id);
     }
 
-    public List<Task> getTaskListByOwnerId(int ownerId) {
-        Optional<User> ownerOptional = userRepository.findById(ownerId);
-        if (ownerOptional.isEmpty()) throw new ObjectNotFoundException("User not found with by id" + ownerId);
+    public List<TaskView> getTaskListByOwnerId(int ownerId, TaskFilter filter) {
+        if (!userRepository.existsById(ownerId)) throw new ObjectNotFoundException("User not found with id" + ownerId);
 
-        TypedQuery<Task> query = entityManager.createQuery("select t from Task t left join fetch t.owner o left join fetch t.executor e left join fetch t.commentList c WHERE o.id = ?1", Task.class);
-        return query.setParameter(1, ownerId).getResultList();
+        return getTaskListQuery("t.owner.id", ownerId, filter).getResultList();
     }
 
-    public List<Task> getTaskListByOwnerId(int ownerId, int page, int tasksPerPage) {
-        Optional<User> ownerOptional = userRepository.findById(ownerId);
-        if (ownerOptional.isEmpty()) throw new ObjectNotFoundException("User not found with id" + ownerId);
+    public List<TaskView> getTaskListByOwnerId(int ownerId, TaskFilter filter, int page, int tasksPerPage) {
+        if (!userRepository.existsById(ownerId)) throw new ObjectNotFoundException("User not found with id" + ownerId);
 
-        TypedQuery<Task> query = entityManager.createQuery("select t from Task t left join fetch t.owner o left join fetch t.executor e left join fetch t.commentList c WHERE o.id = ?1", Task.class);
-        return query.setParameter(1, ownerId).setMaxResults(tasksPerPage).setFirstResult(page * tasksPerPage).getResultList();
+        return getTaskListQuery("t.owner.id", ownerId, filter).setMaxResults(tasksPerPage).setFirstResult(Math.multiplyExact(page, tasksPerPage)).getResultList();
     }
 
-    public List<Task> getTaskListByExecutorId(int executorId) {
-        Optional<User> executorOptional = userRepository.findById(executorId);
-        if (executorOptional.isEmpty()) throw new ObjectNotFoundException("User not found with id" + executorId);
+    public List<TaskView> getTaskListByExecutorId(int executorId, TaskFilter filter) {
+        if (!userRepository.existsById(executorId)) throw new ObjectNotFoundException("User not found with id" + executorId);
 
+        return getTaskListQuery("t.executor.id", executorId, filter).getResultList();
+    }
+
+    public List<TaskView> getTaskListByExecutorId(int executorId, TaskFilter filter, int page, int tasksPerPage) {
+        if (!userRepository.existsById(executorId)) throw new ObjectNotFoundException("User not found with id" + executorId);
+
+        return getTaskListQuery("t.executor.id", executorId, filter).setMaxResults(tasksPerPage).setFirstResult(Math.multiplyExact(page, tasksPerPage)).getResultList();
+    }
+
+    public TaskPage getTaskPageByOwnerId(int ownerId, TaskFilter filter, String cursor, int tasksPerPage) {
+        if (!userRepository.existsById(ownerId)) throw new ObjectNotFoundException("User not found with id" + ownerId);
 
-        TypedQuery<Task> query = entityManager.createQuery("select t from Task t left join fetch t.owner o left join fetch t.executor e left join fetch t.commentList c WHERE e.id = ?1", Task.class);
-        return query.setParameter(1, executorId).getResultList();
+        return getTaskPage("t.owner.id", ownerId, filter, cursor, tasksPerPage);
     }
 
-    public List<Task> getTaskListByExecutorId(int executorId, int page, int tasksPerPage) {
-        Optional<User> executorOptional = userRepository.findById(executorId);
-        if (executorOptional.isEmpty()) throw new ObjectNotFoundException("User not found");
+    public TaskPage getTaskPageByExecutorId(int executorId, TaskFilter filter, String cursor, int tasksPerPage) {
+        if (!userRepository.existsById(executorId)) throw new ObjectNotFoundException("User not found with id" + executorId);
 
-        TypedQuery<Task> query = entityManager.createQuery("select t from Task t left join fetch t.owner o left join fetch t.executor e left join fetch t.commentList c WHERE e.id = ?1", Task.class);
-        return query.setParameter(1, executorId).setMaxResults(tasksPerPage).setFirstResult(page * tasksPerPage).getResultList();
+        return getTaskPage("t.executor.id", executorId, filter, cursor, tasksPerPage);
+    }
+
+    /**
+     * Filters run in SQL on the composite indexes (user, id), (user, state, id) and (user, priority, id) of owner_id
+     * and executor_id, which return rows in id order without a sort; with both conditions one is the index range
+     * and the other a filter.
+     */
+    private TypedQuery<TaskView> getTaskListQuery(String userIdPath, int userId, TaskFilter filter) {
+        TypedQuery<TaskView> query = entityManager.createQuery(TaskView.SELECT + "where " + userIdPath + " = :userId " + filter.where() + filter.orderBy(), TaskView.class);
+        return filter.bind(query).setParameter("userId", userId);
+    }
+
+    /**
+     * Seeks past the last task id of the previous page so every page costs the same index range scan.
+     * Pages are always in id order, the cursor would not be stable under any other.
+     */
+    private TaskPage getTaskPage(String userIdPath, int userId, TaskFilter filter, String cursor, int tasksPerPage) {
+        int afterId = IdCursor.decode(cursor, 0);
+
+        TypedQuery<TaskView> query = entityManager.createQuery(TaskView.SELECT + "where " + userIdPath + " = :userId and t.id > :afterId " + filter.where() + "order by t.id", TaskView.class);
+        List<TaskView> taskList = filter.bind(query).setParameter("userId", userId).setParameter("afterId", afterId).setMaxResults(tasksPerPage + 1).getResultList();
+
+        boolean hasNext = taskList.size() > tasksPerPage;
+        if (hasNext) taskList = taskList.subList(0, tasksPerPage);
+
+        return new TaskPage(taskList, hasNext ? IdCursor.encode(taskList.get(taskList.size() - 1).id()) : null);
+    }
+
+    /**
+     * Returns one page of the user's own and executed tasks matching the query, best match first.
+     */
+    public List<TaskView> searchTasks(int userId, String query, int page, int tasksPerPage) {
+        List<TaskView> taskList = new ArrayList<>(tasksPerPage);
+        for (Object[] row : taskRepository.search(query, userId, tasksPerPage, Math.multiplyExact(page, tasksPerPage))) {
+            taskList.add(new TaskView(((Number) row[0]).intValue(), (String) row[1], (String) row[2],
+                    row[3] != null ? TaskState.valueOf((String) row[3]) : null,
+                    row[4] != null ? TaskPriority.valueOf((String) row[4]) : null,
+                    row[5] != null ? ((Number) row[5]).intValue() : null,
+                    row[6] != null ? ((Number) row[6]).intValue() : null,
+                    ((Number) row[7]).longValue()));
+        }
+        return taskList;
     }
 
     @Transactional
     public void deleteTask(int taskId) {
-        taskRepository.deleteById(taskId);
+        Optional<Task> taskOptional = taskRepository.findById(taskId);
+        if (taskOptional.isEmpty()) return;
+
+        Task task = taskOptional.get();
+        taskRepository.delete(task);
+        taskAuthorizationService.invalidate(taskId);
+        taskCounterService.taskChanged(TaskCounterSnapshot.of(task), null);
+        eventPublisher.publishEvent(new TaskEvent(TaskEventType.DELETED, taskId, TaskEvent.participants(task)));
     }
 
     @Transactional
@@ -81,8 +180,11 @@ public class TaskService {
         if (taskOptional.isEmpty()) throw new ObjectNotFoundException("Task not found status");
 
         Task task = taskOptional.get();
+        TaskCounterSnapshot before = TaskCounterSnapshot.of(task);
         task.setTaskState(newTaskState);
         taskRepository.save(task);
+        taskCounterService.taskChanged(before, TaskCounterSnapshot.of(task));
+        eventPublisher.publishEvent(new TaskEvent(TaskEventType.STATE_CHANGED, taskId, TaskEvent.participants(task)));
     }
 
     @Transactional
@@ -94,8 +196,43 @@ public class TaskService {
 
         Task task = taskOptional.get();
         User executor = userOptional.get();
+        Set<Integer> recipientIds = TaskEvent.participants(task);
+        TaskCounterSnapshot before = TaskCounterSnapshot.of(task);
         task.setExecutor(executor);
         taskRepository.save(task);
+        taskAuthorizationService.invalidate(taskId);
+        taskCounterService.taskChanged(before, TaskCounterSnapshot.of(task));
+        recipientIds.addAll(TaskEvent.participants(task));
+        eventPublisher.publishEvent(new TaskEvent(TaskEventType.EXECUTOR_SET, taskId, recipientIds));
+    }
+
+    /**
+     * Applies the changes to the task if it is still at the expected version. The task usually comes from the
+     * second-level cache and dynamic updates write only the changed columns, so the whole change is one
+     * UPDATE ... WHERE id = ? AND version = ?, which also catches an editor that committed in between.
+     */
+    @Transactional
+    public Task patchTask(int taskId, long expectedVersion, Consumer<Task> changes) {
+        Optional<Task> taskOptional = taskRepository.findById(taskId);
+        if (taskOptional.isEmpty()) throw new ObjectNotFoundException("Task not found");
+
+        Task task = taskOptional.get();
+        if (task.getVersion() != expectedVersion)
+            throw new VersionConflictException("Task is at version " + task.getVersion() + ", not " + expectedVersion);
+
+        Set<Integer> recipientIds = TaskEvent.participants(task);
+        TaskCounterSnapshot before = TaskCounterSnapshot.of(task);
+        changes.accept(task);
+        try {
+            entityManager.flush();
+        } catch (OptimisticLockException e) {
+            throw new VersionConflictException("Task was changed concurrently");
+        }
+        taskAuthorizationService.invalidate(taskId);
+        taskCounterService.taskChanged(before, TaskCounterSnapshot.of(task));
+        recipientIds.addAll(TaskEvent.participants(task));
+        eventPublisher.publishEvent(new TaskEvent(TaskEventType.UPDATED, taskId, recipientIds));
+        return task;
     }
 
     @Transactional
@@ -104,12 +241,18 @@ public class TaskService {
         if (taskOptional.isEmpty()) throw new ObjectNotFoundException("Task not found update");
 
         Task task = taskOptional.get();
+        Set<Integer> recipientIds = TaskEvent.participants(task);
+        TaskCounterSnapshot before = TaskCounterSnapshot.of(task);
         task.setTitle(newTask.getTitle());
         task.setDescription(newTask.getDescription());
         task.setTaskPriority(newTask.getTaskPriority());
         task.setTaskState(newTask.getTaskState());
         task.setOwner(newTask.getOwner());
         task.setExecutor(newTask.getExecutor());
+        taskAuthorizationService.invalidate(taskId);
+        taskCounterService.taskChanged(before, TaskCounterSnapshot.of(task));
+        recipientIds.addAll(TaskEvent.participants(task));
+        eventPublisher.publishEvent(new TaskEvent(TaskEventType.UPDATED, taskId, recipientIds));
         return task;
     }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.example.service;
+
+/**
+ * Orders of the task list endpoints; ties are always broken by id. STATE and PRIORITY follow the declaration order
+ * of their enum, the workflow and the importance, not the alphabetical order of the names. Every order is backed
+ * by the owner and executor indexes of V10__create_sort_indexes.sql, which repeat the case expressions below.
+ */
+public enum TaskSort {
+
+    ID("t.id"),
+    TITLE("t.title"),
+    STATE("case t.taskState when com.example.model.TaskState.IN_PROGRESS then 0 when com.example.model.TaskState.WAITING then 1 when com.example.model.TaskState.COMPLETED then 2 end"),
+    PRIORITY("case t.taskPriority when com.example.model.TaskPriority.HI then 0 when com.example.model.TaskPriority.MEDIUM then 1 when com.example.model.TaskPriority.LOW then 2 end");
+
+    private final String expression;
+
+    TaskSort(String expression) {
+        this.expression = expression;
+    }
+
+    String getExpression() {
+        return expression;
+    }
+}
@@ -1,10 +1,16 @@
 package com.example.service;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import com.example.datasource.ReadYourWritesTracker;
 import com.example.model.User;
 import com.example.repository.UserRepository;
+import com.example.security.UserPrincipalCache;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional(readOnly = true)
@@ -12,8 +18,14 @@ public class UserService {
 
     public final UserRepository userRepository;
 
-    public UserService(UserRepository userRepository) {
+    private final UserPrincipalCache userPrincipalCache;
+
+    private final ObjectProvider<ReadYourWritesTracker> readYourWritesTracker;
+
+    public UserService(UserRepository userRepository, UserPrincipalCache userPrincipalCache, ObjectProvider<ReadYourWritesTracker> readYourWritesTracker) {
         this.userRepository = userRepository;
+        this.userPrincipalCache = userPrincipalCache;
+        this.readYourWritesTracker = readYourWritesTracker;
     }
 
     public Optional<User> getUserById(int id) {
@@ -28,8 +40,27 @@ public class UserService {
         return userRepository.getUserByUsername(username);
     }
 
+    public boolean existsById(int id) {
+        return userRepository.existsById(id);
+    }
+
+    public Set<Integer> getExistingUserIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) return Set.of();
+        return new HashSet<>(userRepository.findExistingIds(ids));
+    }
+
+    public User getUserReference(int id) {
+        return userRepository.getReferenceById(id);
+    }
+
+    /**
+     * Registration runs without a principal, so the new user is recorded as a recent writer explicitly
+     * and their first requests read from the primary.
+     */
     @Transactional
     public void createUser(User user) {
         userRepository.save(user);
+        userPrincipalCache.invalidate(user.getMail());
+        readYourWritesTracker.ifAvailable(x -> x.recordWriter(user.getId()));
     }
 }
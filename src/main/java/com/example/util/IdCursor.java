@@ -0,0 +1,28 @@
+package com.example.util;
+
+import com.example.exception.ValidationFailException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor holding the id of the last row of the previous page.
+ */
+public class IdCursor {
+
+    private static final String PREFIX = "id:";
+
+    public static String encode(int lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static int decode(String cursor, int firstPageId) {
+        if (cursor == null || cursor.isEmpty()) return firstPageId;
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!value.startsWith(PREFIX)) throw new ValidationFailException("cursor - malformed cursor; ");
+            return Integer.parseInt(value.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationFailException("cursor - malformed cursor; ");
+        }
+    }
+}
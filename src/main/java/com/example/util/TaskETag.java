@@ -0,0 +1,65 @@
+package com.example.util;
+
+import com.example.dto.tasks.TaskView;
+import com.example.exception.ValidationFailException;
+import com.example.service.TaskPage;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Strong entity tags of task resources, derived from task versions instead of the serialized body.
+ */
+public class TaskETag {
+
+    private static final int DIGEST_BYTES = 16;
+
+    public static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Reads the task version out of an If-Match header holding a tag returned by {@link #of(long)}.
+     */
+    public static long parseVersion(String eTag) {
+        String value = eTag.trim();
+        if (value.length() < 3 || value.charAt(0) != '"' || value.charAt(value.length() - 1) != '"')
+            throw new ValidationFailException("If-Match - must be the ETag of the task; ");
+        try {
+            return Long.parseLong(value.substring(1, value.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new ValidationFailException("If-Match - must be the ETag of the task; ");
+        }
+    }
+
+    /**
+     * Tags a task list by the ids and versions of its tasks in response order.
+     */
+    public static String of(List<TaskView> taskList) {
+        return of(taskList, false);
+    }
+
+    /**
+     * Tags a keyset page by its tasks and by whether a next page follows.
+     */
+    public static String of(TaskPage taskPage) {
+        return of(taskPage.tasks(), taskPage.nextCursor() != null);
+    }
+
+    private static String of(List<TaskView> taskList, boolean hasNext) {
+        ByteBuffer buffer = ByteBuffer.allocate(taskList.size() * (Integer.BYTES + Long.BYTES) + 1);
+        for (TaskView taskView : taskList) {
+            buffer.putInt(taskView.id()).putLong(taskView.version());
+        }
+        buffer.put((byte) (hasNext ? 1 : 0));
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(buffer.array());
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, DIGEST_BYTES)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.validation;
+
+import com.example.dto.tasks.TaskDTO;
+import com.example.service.UserService;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Validates a batch of tasks with a single user lookup for all owners and executors,
+ * instead of two lookups per task as {@link TaskValidation} does.
+ */
+@Component
+public class TaskBatchValidation {
+    private final UserService userService;
+
+    public TaskBatchValidation(UserService userService) {
+        this.userService = userService;
+    }
+
+    /**
+     * Returns the error message of every rejected task, keyed by its index in the batch.
+     */
+    public Map<Integer, String> validate(List<TaskDTO> taskDTOList) {
+        Set<Integer> userIds = new HashSet<>();
+        for (TaskDTO taskDTO : taskDTOList) {
+            if (taskDTO == null) continue;
+            if (taskDTO.getOwnerId() != null) userIds.add(taskDTO.getOwnerId());
+            if (taskDTO.getExecutorId() != null) userIds.add(taskDTO.getExecutorId());
+        }
+        Set<Integer> existingUserIds = userService.getExistingUserIds(userIds);
+
+        Map<Integer, String> errors = new HashMap<>();
+        for (int i = 0; i < taskDTOList.size(); i++) {
+            TaskDTO taskDTO = taskDTOList.get(i);
+            if (taskDTO == null) {
+                errors.put(i, "task - must not be null; ");
+                continue;
+            }
+
+            StringBuilder errorMessage = new StringBuilder();
+            if (taskDTO.getTitle() == null) errorMessage.append("title - field is required; ");
+            if (taskDTO.getTaskState() == null) errorMessage.append("taskState - field is required; ");
+            if (taskDTO.getTaskPriority() == null) errorMessage.append("taskPriority - field is required; ");
+            if (taskDTO.getOwnerId() == null) errorMessage.append("ownerId - field is required; ");
+            else if (!existingUserIds.contains(taskDTO.getOwnerId())) errorMessage.append("ownerId - User id not found; ");
+            if (taskDTO.getExecutorId() != null && !existingUserIds.contains(taskDTO.getExecutorId()))
+                errorMessage.append("executorId - User id not found; ");
+
+            if (!errorMessage.isEmpty()) errors.put(i, errorMessage.toString());
+        }
+        return errors;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.validation;
+
+import com.example.dto.tasks.TaskPatchDTO;
+import com.example.dto.tasks.TaskPatchDTO.Field;
+import com.example.service.UserService;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+
+/**
+ * Validates only the fields a partial update carries; required task fields may be omitted but not cleared.
+ */
+@Component
+public class TaskPatchValidation implements Validator {
+    private final UserService userService;
+
+    public TaskPatchValidation(UserService userService) {
+        this.userService = userService;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return TaskPatchDTO.class.equals(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        TaskPatchDTO taskPatchDTO = (TaskPatchDTO) target;
+        if (taskPatchDTO.isPresent(Field.TITLE) && taskPatchDTO.getTitle() == null) errors.rejectValue("title", "", "field is required");
+        if (taskPatchDTO.isPresent(Field.TASK_STATE) && taskPatchDTO.getTaskState() == null) errors.rejectValue("taskState", "", "field is required");
+        if (taskPatchDTO.isPresent(Field.TASK_PRIORITY) && taskPatchDTO.getTaskPriority() == null) errors.rejectValue("taskPriority", "", "field is required");
+        if (taskPatchDTO.isPresent(Field.OWNER_ID)) {
+            if (taskPatchDTO.getOwnerId() == null) errors.rejectValue("ownerId", "", "field is required");
+            else if (!userService.existsById(taskPatchDTO.getOwnerId())) errors.rejectValue("ownerId", "", "User id not found");
+        }
+        if (taskPatchDTO.getExecutorId() != null && !userService.existsById(taskPatchDTO.getExecutorId())) {
+            errors.rejectValue("executorId", "", "User id not found");
+        }
+    }
+}
@@ -0,0 +1,9 @@
+-- Sorted owner and executor lists, see TaskSort. The rank expressions must stay identical to the SQL Hibernate
+-- renders for the TaskSort case expressions, otherwise the planner does not match them to these indexes.
+create index concurrently IF NOT EXISTS task_owner_title_idx on task (owner_id, title, id);
+create index concurrently IF NOT EXISTS task_owner_state_rank_idx on task (owner_id, (case state when 'IN_PROGRESS' then 0 when 'WAITING' then 1 when 'COMPLETED' then 2 end), id);
+create index concurrently IF NOT EXISTS task_owner_priority_rank_idx on task (owner_id, (case priority when 'HI' then 0 when 'MEDIUM' then 1 when 'LOW' then 2 end), id);
+
+create index concurrently IF NOT EXISTS task_executor_title_idx on task (executor_id, title, id) where executor_id is not null;
+create index concurrently IF NOT EXISTS task_executor_state_rank_idx on task (executor_id, (case state when 'IN_PROGRESS' then 0 when 'WAITING' then 1 when 'COMPLETED' then 2 end), id) where executor_id is not null;
+create index concurrently IF NOT EXISTS task_executor_priority_rank_idx on task (executor_id, (case priority when 'HI' then 0 when 'MEDIUM' then 1 when 'LOW' then 2 end), id) where executor_id is not null;
@@ -0,0 +1,2 @@
+-- Task ids are allocated by Hibernate in blocks of 50, so the sequence has to step by the same amount
+alter sequence task_id_seq increment by 50;
@@ -20,4 +20,4 @@ create table IF NOT EXISTS comment(
                         text varchar,
                         user_id int references user_table(id),
                         task_id int references task(id)
-);
\ No newline at end of file
+);
@@ -0,0 +1,8 @@
+-- Stored generated columns are recomputed by Postgres on every write of the row.
+-- Adding one rewrites the table, schedule this migration on a large database accordingly.
+alter table task add column IF NOT EXISTS search_vector tsvector generated always as (
+    setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(description, '')), 'B')) stored;
+
+alter table comment add column IF NOT EXISTS search_vector tsvector generated always as (
+    setweight(to_tsvector('simple', coalesce(text, '')), 'C')) stored;
@@ -0,0 +1,2 @@
+create index concurrently IF NOT EXISTS task_search_vector_idx on task using gin (search_vector);
+create index concurrently IF NOT EXISTS comment_search_vector_idx on comment using gin (search_vector);
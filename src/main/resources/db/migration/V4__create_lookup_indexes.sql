@@ -0,0 +1,15 @@
+-- Owner lists and keyset pages, plain and filtered by state or priority
+create index concurrently IF NOT EXISTS task_owner_id_idx on task (owner_id, id);
+create index concurrently IF NOT EXISTS task_owner_state_idx on task (owner_id, state, id);
+create index concurrently IF NOT EXISTS task_owner_priority_idx on task (owner_id, priority, id);
+
+-- Executor lists; tasks without an executor never match, so they are left out of the indexes
+create index concurrently IF NOT EXISTS task_executor_id_idx on task (executor_id, id) where executor_id is not null;
+create index concurrently IF NOT EXISTS task_executor_state_idx on task (executor_id, state, id) where executor_id is not null;
+create index concurrently IF NOT EXISTS task_executor_priority_idx on task (executor_id, priority, id) where executor_id is not null;
+
+-- Comment pages, latest comments and comment counts per task
+create index concurrently IF NOT EXISTS comment_task_id_idx on comment (task_id, id);
+
+-- Foreign key of comment authors, keeps deletes of users from scanning comment
+create index concurrently IF NOT EXISTS comment_user_id_idx on comment (user_id);
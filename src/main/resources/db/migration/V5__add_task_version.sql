@@ -0,0 +1,2 @@
+-- A constant default only touches the catalog, existing rows are not rewritten
+alter table task add column IF NOT EXISTS version bigint not null default 0;
@@ -0,0 +1,8 @@
+-- Task state and priority used to be mapped as ordinals, so the varchar columns of existing rows hold '0', '1', '2'.
+-- The entity now maps them by name, and the counters of V7 and the sort indexes of V10 expect the names too.
+-- The ordinals follow the declaration order of TaskState and TaskPriority.
+update task set state = case state when '0' then 'IN_PROGRESS' when '1' then 'WAITING' when '2' then 'COMPLETED' end
+where state in ('0', '1', '2');
+
+update task set priority = case priority when '0' then 'HI' when '1' then 'MEDIUM' when '2' then 'LOW' end
+where priority in ('0', '1', '2');
@@ -0,0 +1,3 @@
+-- Comment ids are handed out in blocks of 50 by CommentIdAllocator before the comment is written,
+-- an insert through the identity default takes the first id of a block
+alter sequence comment_id_seq increment by 50;
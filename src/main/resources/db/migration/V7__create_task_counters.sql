@@ -0,0 +1,18 @@
+-- Number of tasks per user, role, state and priority, maintained by TaskCounterService in the transaction
+-- that changes the tasks. A missing state or priority is stored as 'NONE'
+create table IF NOT EXISTS task_counter(
+                        user_id int not null references user_table(id),
+                        role varchar not null,
+                        state varchar not null,
+                        priority varchar not null,
+                        task_count bigint not null,
+                        primary key (user_id, role, state, priority)
+);
+
+insert into task_counter (user_id, role, state, priority, task_count)
+select owner_id, 'OWNER', coalesce(state, 'NONE'), coalesce(priority, 'NONE'), count(*) from task
+where owner_id is not null group by owner_id, coalesce(state, 'NONE'), coalesce(priority, 'NONE')
+union all
+select executor_id, 'EXECUTOR', coalesce(state, 'NONE'), coalesce(priority, 'NONE'), count(*) from task
+where executor_id is not null group by executor_id, coalesce(state, 'NONE'), coalesce(priority, 'NONE')
+on conflict do nothing;
@@ -0,0 +1,3 @@
+-- Lets a GIN index carry plain columns next to search_vector, so a search probes the rows of one user or task
+-- instead of every row matching the query. btree_gin is a trusted extension, the database owner may create it.
+create extension IF NOT EXISTS btree_gin;
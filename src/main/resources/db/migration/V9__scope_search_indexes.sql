@@ -0,0 +1,6 @@
+-- Search indexes scoped to the owner, the executor and the task of a comment, they replace the global ones of V3
+create index concurrently IF NOT EXISTS task_owner_search_vector_idx on task using gin (owner_id, search_vector);
+create index concurrently IF NOT EXISTS task_executor_search_vector_idx on task using gin (executor_id, search_vector) where executor_id is not null;
+create index concurrently IF NOT EXISTS comment_task_search_vector_idx on comment using gin (task_id, search_vector);
+drop index concurrently IF EXISTS task_search_vector_idx;
+drop index concurrently IF EXISTS comment_search_vector_idx;
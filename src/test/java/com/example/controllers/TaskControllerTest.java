@@ -2,12 +2,23 @@ package com.example.controllers;
 
 import com.example.dto.LoginDTO;
 import com.example.dto.comments.CommentDTO;
+import com.example.dto.comments.CommentDTOResponse;
+import com.example.dto.comments.CommentPageDTOResponse;
+import com.example.dto.tasks.TaskBatchDTOResponse;
+import com.example.dto.tasks.TaskCountersDTOResponse;
 import com.example.dto.tasks.TaskDTO;
 import com.example.dto.tasks.TaskDTOResponse;
+import com.example.dto.tasks.TaskPageDTOResponse;
 import com.example.model.Task;
 import com.example.model.TaskPriority;
 import com.example.model.TaskState;
+import com.example.monitoring.RequestStatements;
+import com.example.monitoring.SqlStatementCounter;
+import com.example.monitoring.SqlStatementCountingFilter;
+import com.example.service.CommentIngestionQueue;
 import com.example.service.CommentService;
+import com.example.service.TaskCounterService;
+import com.example.service.TaskFilter;
 import com.example.service.TaskService;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -17,6 +28,7 @@ import org.json.JSONObject;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
@@ -24,12 +36,16 @@ import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import static com.example.monitoring.SqlStatementMatchers.handlerStatements;
+import static com.example.monitoring.SqlStatementMatchers.totalStatementsAtMost;
 import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_CLASS;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -44,6 +60,9 @@ class TaskControllerTest {
     @Autowired
     private Filter springSecurityFilterChain;
 
+    @Autowired
+    private SqlStatementCountingFilter sqlStatementCountingFilter;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -53,6 +72,15 @@ class TaskControllerTest {
     @Autowired
     private CommentService commentService;
 
+    @Autowired
+    private CommentIngestionQueue commentIngestionQueue;
+
+    @Autowired
+    private TaskCounterService taskCounterService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private MockMvc mockMvc;
 
     private String token;
@@ -61,7 +89,7 @@ class TaskControllerTest {
     @BeforeEach
     void setup() {
         this.mockMvc = MockMvcBuilders.webAppContextSetup(this.webApplicationContext)
-                .addFilters(springSecurityFilterChain)
+                .addFilters(sqlStatementCountingFilter, springSecurityFilterChain)
                 .build();
     }
 
@@ -85,6 +113,68 @@ class TaskControllerTest {
         System.out.println(token);
     }
 
+    @Test
+    @Order(1)
+    void searchTasksTest() throws Exception {
+        MvcResult mvcResult = this.mockMvc
+                .perform(
+                        get("/api/task/search")
+                                .header("Authorization", this.token)
+                                .param("q", "base task")
+                                .contentType("application/JSON")
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(handlerStatements(3))
+                .andReturn();
+
+        String content = mvcResult.getResponse().getContentAsString();
+        List<TaskDTOResponse> responseList = objectMapper.readValue(content, new TypeReference<List<TaskDTOResponse>>() {});
+        Assertions.assertEquals(1, responseList.size());
+        Assertions.assertEquals("task_base", responseList.get(0).getTitle());
+
+        mvcResult = this.mockMvc
+                .perform(
+                        get("/api/task/search")
+                                .header("Authorization", this.token)
+                                .param("q", "task1")
+                                .contentType("application/JSON")
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andReturn();
+
+        content = mvcResult.getResponse().getContentAsString();
+        responseList = objectMapper.readValue(content, new TypeReference<List<TaskDTOResponse>>() {});
+        Assertions.assertTrue(responseList.isEmpty());
+    }
+
+    @Test
+    @Order(1)
+    void pageOffsetOverflowTest() throws Exception {
+        this.mockMvc
+                .perform(
+                        get("/api/task/search")
+                                .header("Authorization", this.token)
+                                .param("q", "base task")
+                                .param("page", "3000000")
+                                .param("tasks_per_page", "1000")
+                )
+                .andDo(print())
+                .andExpect(status().isConflict());
+
+        this.mockMvc
+                .perform(
+                        get("/api/task/get-by-owner")
+                                .header("Authorization", this.token)
+                                .param("id", "1")
+                                .param("page", "1073741824")
+                                .param("tasks_per_page", "2")
+                )
+                .andDo(print())
+                .andExpect(status().isConflict());
+    }
+
     @Test
     @Order(5)
     void createTaskTest() throws Exception {
@@ -105,11 +195,88 @@ class TaskControllerTest {
                 )
                 .andDo(print())
                 .andExpect(status().isOk())
+                .andExpect(totalStatementsAtMost(5))
                 .andReturn();
 
         Assertions.assertEquals("create test", taskService.getTaskById(4).get().getTitle());
     }
 
+    @Test
+    @Order(6)
+    void createTasksTest() throws Exception {
+        TaskDTO taskDTO = new TaskDTO();
+        taskDTO.setTitle("batch test");
+        taskDTO.setTaskState(TaskState.WAITING);
+        taskDTO.setTaskPriority(TaskPriority.LOW);
+        taskDTO.setOwnerId(1);
+
+        TaskDTO invalidTaskDTO = new TaskDTO();
+        invalidTaskDTO.setTitle("batch test invalid");
+        invalidTaskDTO.setTaskState(TaskState.WAITING);
+        invalidTaskDTO.setTaskPriority(TaskPriority.LOW);
+        invalidTaskDTO.setOwnerId(99);
+
+        MvcResult mvcResult = this.mockMvc
+                .perform(
+                        post("/api/task/batch")
+                                .header("Authorization", this.token)
+                                .content(objectMapper.writeValueAsString(List.of(taskDTO, invalidTaskDTO)))
+                                .contentType("application/JSON")
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(totalStatementsAtMost(4))
+                .andReturn();
+
+        TaskBatchDTOResponse response = objectMapper.readValue(mvcResult.getResponse().getContentAsString(), TaskBatchDTOResponse.class);
+        Assertions.assertEquals(1, response.getCreated());
+        Assertions.assertEquals(1, response.getFailed());
+        Assertions.assertEquals("batch test", taskService.getTaskById(response.getResults().get(0).getId()).get().getTitle());
+        Assertions.assertNull(response.getResults().get(1).getId());
+        Assertions.assertNotNull(response.getResults().get(1).getError());
+    }
+
+    @Test
+    @Order(7)
+    void getFilteredTaskListByOwnerTest() throws Exception {
+        MvcResult mvcResult = this.mockMvc
+                .perform(
+                        get("/api/task/get-by-owner")
+                                .header("Authorization", this.token)
+                                .param("id", "1")
+                                .param("state", "WAITING")
+                                .param("priority", "LOW")
+                                .param("sort", "TITLE")
+                                .param("direction", "DESC")
+                                .contentType("application/JSON")
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(handlerStatements(4))
+                .andReturn();
+
+        String content = mvcResult.getResponse().getContentAsString();
+        List<TaskDTOResponse> responseList = objectMapper.readValue(content, new TypeReference<List<TaskDTOResponse>>() {});
+        Assertions.assertEquals(List.of("create test", "batch test"), responseList.stream().map(TaskDTOResponse::getTitle).toList());
+
+        mvcResult = this.mockMvc
+                .perform(
+                        get("/api/task/get-by-owner/page")
+                                .header("Authorization", this.token)
+                                .param("id", "1")
+                                .param("priority", "HI")
+                                .contentType("application/JSON")
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andReturn();
+
+        content = mvcResult.getResponse().getContentAsString();
+        TaskPageDTOResponse response = objectMapper.readValue(content, TaskPageDTOResponse.class);
+        Assertions.assertTrue(response.getTasks().isEmpty());
+        Assertions.assertNull(response.getNextCursor());
+    }
+
     @Test
     @Order(5)
     void getTask() throws Exception {
@@ -127,6 +294,7 @@ class TaskControllerTest {
                 )
                 .andDo(print())
                 .andExpect(status().isOk())
+                .andExpect(totalStatementsAtMost(4))
                 .andExpect(content().contentType("application/JSON"))
                 .andReturn();
 
@@ -155,6 +323,7 @@ class TaskControllerTest {
                 )
                 .andDo(print())
                 .andExpect(status().isOk())
+                .andExpect(totalStatementsAtMost(4))
                 .andExpect(content().json(objectMapper.writeValueAsString(taskDTO)))
                 .andReturn();
 
@@ -185,6 +354,7 @@ class TaskControllerTest {
                 )
                 .andDo(print())
                 .andExpect(status().isOk())
+                .andExpect(handlerStatements(4))
                 .andExpect(content().contentType("application/JSON"))
                 .andReturn();
 
@@ -218,6 +388,7 @@ class TaskControllerTest {
                 )
                 .andDo(print())
                 .andExpect(status().isOk())
+                .andExpect(handlerStatements(2))
                 .andExpect(content().contentType("application/JSON"))
                 .andReturn();
         String content = mvcResult.getResponse().getContentAsString();
@@ -226,6 +397,55 @@ class TaskControllerTest {
     }
 
 
+    @Test
+    @Order(10)
+    void getTaskPageByOwnerTest() throws Exception {
+        MvcResult mvcResult = this.mockMvc
+                .perform(
+                        get("/api/task/get-by-owner/page")
+                                .header("Authorization", this.token)
+                                .param("id", "2")
+                                .param("tasks_per_page", "1")
+                                .contentType("application/JSON")
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(handlerStatements(4))
+                .andReturn();
+
+        String content = mvcResult.getResponse().getContentAsString();
+        TaskPageDTOResponse response = objectMapper.readValue(content, TaskPageDTOResponse.class);
+        Assertions.assertEquals(1, response.getTasks().size());
+        Assertions.assertEquals("task1", response.getTasks().get(0).getTitle());
+        Assertions.assertNull(response.getNextCursor());
+    }
+
+    @Test
+    @Order(10)
+    void exportTaskListByOwnerTest() throws Exception {
+        MvcResult mvcResult = this.mockMvc
+                .perform(
+                        get("/api/task/get-by-owner/export")
+                                .header("Authorization", this.token)
+                                .param("id", "2")
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String content = this.mockMvc
+                .perform(asyncDispatch(mvcResult))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(handlerStatements(2))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String[] lines = content.split("\n");
+        Assertions.assertEquals(1, lines.length);
+        Assertions.assertEquals("task1", objectMapper.readValue(lines[0], TaskDTOResponse.class).getTitle());
+    }
+
     @Test
     @Order(10)
     void changeTaskStatusTest() throws Exception {
@@ -239,6 +459,7 @@ class TaskControllerTest {
                 )
                 .andDo(print())
                 .andExpect(status().isOk())
+                .andExpect(totalStatementsAtMost(3))
                 .andReturn();
 
         Task task = taskService.getTaskById(1).get();
@@ -258,6 +479,7 @@ class TaskControllerTest {
                 )
                 .andDo(print())
                 .andExpect(status().isOk())
+                .andExpect(totalStatementsAtMost(4))
                 .andReturn();
 
         Task task = taskService.getTaskById(1).get();
@@ -281,12 +503,216 @@ class TaskControllerTest {
                                 .contentType("application/JSON")
                 )
                 .andDo(print())
-                .andExpect(status().isOk())
+                .andExpect(status().isAccepted())
+                .andExpect(totalStatementsAtMost(2))
                 .andReturn();
 
+        CommentDTOResponse accepted = objectMapper.readValue(mvcResult.getResponse().getContentAsString(), CommentDTOResponse.class);
+        Assertions.assertEquals("test comment", accepted.getText());
+        Assertions.assertTrue(commentIngestionQueue.flush(Duration.ofSeconds(5)));
+
         Task task = taskService.getTaskById(1).get();
         Hibernate.initialize(task);
-        Assertions.assertEquals(true, commentService.getComment(1).isPresent());
+        Assertions.assertEquals(true, commentService.getComment(accepted.getId()).isPresent());
+    }
+
+    @Test
+    @Order(20)
+    void getCommentPageTest() throws Exception {
+        MvcResult mvcResult = this.mockMvc
+                .perform(
+                        get("/api/task/1/comments")
+                                .header("Authorization", this.token)
+                                .param("comments_per_page", "10")
+                                .contentType("application/JSON")
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(handlerStatements(2))
+                .andReturn();
+
+        CommentPageDTOResponse response = objectMapper.readValue(mvcResult.getResponse().getContentAsString(), CommentPageDTOResponse.class);
+        Assertions.assertEquals(1, response.getComments().size());
+        Assertions.assertEquals("test comment", response.getComments().get(0).getText());
+        Assertions.assertNull(response.getNextCursor());
+    }
+
+    @Test
+    @Order(30)
+    void conditionalGetTaskTest() throws Exception {
+        MvcResult mvcResult = this.mockMvc
+                .perform(
+                        get("/api/task/1")
+                                .header("Authorization", this.token)
+                )
+                .andExpect(status().isOk())
+                .andReturn();
+        String eTag = mvcResult.getResponse().getHeader("ETag");
+        Assertions.assertNotNull(eTag);
+
+        this.mockMvc
+                .perform(
+                        get("/api/task/1")
+                                .header("Authorization", this.token)
+                                .header("If-None-Match", eTag)
+                )
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(handlerStatements(1))
+                .andExpect(content().string(""));
+
+        CommentDTO commentDTO = new CommentDTO();
+        commentDTO.setTaskId(1);
+        commentDTO.setText("etag comment");
+        this.mockMvc
+                .perform(
+                        post("/api/task/add-comment")
+                                .header("Authorization", this.token)
+                                .content(objectMapper.writeValueAsString(commentDTO))
+                                .contentType("application/JSON")
+                )
+                .andExpect(status().isAccepted());
+        Assertions.assertTrue(commentIngestionQueue.flush(Duration.ofSeconds(5)));
+
+        mvcResult = this.mockMvc
+                .perform(
+                        get("/api/task/1")
+                                .header("Authorization", this.token)
+                                .header("If-None-Match", eTag)
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andReturn();
+        Assertions.assertNotEquals(eTag, mvcResult.getResponse().getHeader("ETag"));
+    }
+
+    @Test
+    @Order(30)
+    void conditionalGetTaskListByOwnerTest() throws Exception {
+        MvcResult mvcResult = this.mockMvc
+                .perform(
+                        get("/api/task/get-by-owner")
+                                .header("Authorization", this.token)
+                                .param("id", "1")
+                )
+                .andExpect(status().isOk())
+                .andReturn();
+        String eTag = mvcResult.getResponse().getHeader("ETag");
+        Assertions.assertNotNull(eTag);
+
+        this.mockMvc
+                .perform(
+                        get("/api/task/get-by-owner")
+                                .header("Authorization", this.token)
+                                .header("If-None-Match", eTag)
+                                .param("id", "1")
+                )
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(handlerStatements(2));
+    }
+
+    @Test
+    @Order(40)
+    void patchTaskTest() throws Exception {
+        MvcResult mvcResult = this.mockMvc
+                .perform(
+                        get("/api/task/1")
+                                .header("Authorization", this.token)
+                )
+                .andExpect(status().isOk())
+                .andReturn();
+        String eTag = mvcResult.getResponse().getHeader("ETag");
+        TaskDTOResponse before = objectMapper.readValue(mvcResult.getResponse().getContentAsString(), TaskDTOResponse.class);
+
+        mvcResult = this.mockMvc
+                .perform(
+                        patch("/api/task/1")
+                                .header("Authorization", this.token)
+                                .header("If-Match", eTag)
+                                .content("{\"title\": \"patched\"}")
+                                .contentType("application/JSON")
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andReturn();
+
+        TaskDTO patched = objectMapper.readValue(mvcResult.getResponse().getContentAsString(), TaskDTO.class);
+        Assertions.assertEquals("patched", patched.getTitle());
+        Assertions.assertEquals(before.getDescription(), patched.getDescription());
+        Assertions.assertEquals(before.getOwnerId(), patched.getOwnerId());
+        Assertions.assertNotEquals(eTag, mvcResult.getResponse().getHeader("ETag"));
+
+        RequestStatements statements = (RequestStatements) mvcResult.getRequest().getAttribute(SqlStatementCounter.REQUEST_ATTRIBUTE);
+        Assertions.assertTrue(statements.getExecutions().containsKey("update task set title=?,version=? where id=? and version=?"), statements.toString());
+
+        this.mockMvc
+                .perform(
+                        patch("/api/task/1")
+                                .header("Authorization", this.token)
+                                .header("If-Match", eTag)
+                                .content("{\"description\": null}")
+                                .contentType("application/JSON")
+                )
+                .andDo(print())
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @Order(50)
+    void taskEventsTest() throws Exception {
+        MvcResult subscription = this.mockMvc
+                .perform(
+                        get("/api/task/events")
+                                .header("Authorization", this.token)
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc
+                .perform(
+                        patch("/api/task/set-status")
+                                .header("Authorization", this.token)
+                                .param("id", "1")
+                                .param("task-state", "IN_PROGRESS")
+                                .contentType("application/JSON")
+                )
+                .andExpect(status().isOk());
+
+        String expected = "event:STATE_CHANGED\ndata:{\"type\":\"STATE_CHANGED\",\"taskId\":1}";
+        long deadline = System.currentTimeMillis() + 5000;
+        String events = subscription.getResponse().getContentAsString();
+        while (!events.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            events = subscription.getResponse().getContentAsString();
+        }
+        Assertions.assertTrue(events.contains(expected), events);
+    }
+
+    @Test
+    @Order(60)
+    void taskCountersTest() throws Exception {
+        TaskCountersDTOResponse counters = getTaskCounters();
+        Assertions.assertEquals(taskService.getTaskListByOwnerId(1, TaskFilter.NONE).size(), counters.getOwnedTotal());
+        Assertions.assertEquals(taskService.getTaskListByExecutorId(1, TaskFilter.NONE).size(), counters.getExecutedTotal());
+        Assertions.assertEquals(1, counters.getOwned().get("IN_PROGRESS").values().stream().mapToLong(Long::longValue).sum());
+        Assertions.assertEquals(0, taskCounterService.rebuild(1));
+
+        jdbcTemplate.update("update task_counter set task_count = task_count + 5 where user_id = 1 and role = 'OWNER'");
+        Assertions.assertTrue(taskCounterService.rebuild(1) > 0);
+        Assertions.assertEquals(counters.getOwned(), getTaskCounters().getOwned());
+    }
+
+    private TaskCountersDTOResponse getTaskCounters() throws Exception {
+        MvcResult mvcResult = this.mockMvc
+                .perform(
+                        get("/api/task/counters")
+                                .header("Authorization", this.token)
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readValue(mvcResult.getResponse().getContentAsString(), TaskCountersDTOResponse.class);
     }
 
     @Test
@@ -303,5 +729,6 @@ class TaskControllerTest {
                 .andReturn();
 
         Assertions.assertFalse(taskService.getTaskById(1).isPresent());
+        Assertions.assertEquals(0, taskCounterService.rebuild(1));
     }
 }
\ No newline at end of file
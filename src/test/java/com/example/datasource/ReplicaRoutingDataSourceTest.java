@@ -0,0 +1,146 @@
+package com.example.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.example.security.UserPrincipal;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ReadYourWritesTracker readYourWritesTracker = new ReadYourWritesTracker(Duration.ofMinutes(1), 100);
+
+    private final Connection primaryConnection = mock(Connection.class);
+
+    private final Connection firstReplicaConnection = mock(Connection.class);
+
+    private final Connection secondReplicaConnection = mock(Connection.class);
+
+    private final DataSource primary = mock(DataSource.class);
+
+    private final DataSource secondReplica = mock(DataSource.class);
+
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setup() throws SQLException {
+        DataSource firstReplica = mock(DataSource.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(firstReplica.getConnection()).thenReturn(firstReplicaConnection);
+        when(secondReplica.getConnection()).thenReturn(secondReplicaConnection);
+        when(firstReplicaConnection.isValid(anyInt())).thenReturn(true);
+        when(secondReplicaConnection.isValid(anyInt())).thenReturn(true);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", firstReplica);
+        replicas.put("replica-2", secondReplica);
+        dataSource = new ReplicaRoutingDataSource(primary, replicas, readYourWritesTracker, Duration.ZERO, Duration.ofSeconds(1), meterRegistry);
+    }
+
+    @AfterEach
+    void cleanup() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplicasInTurn() throws SQLException {
+        assertSame(primaryConnection, dataSource.getConnection());
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertSame(firstReplicaConnection, dataSource.getConnection());
+        assertSame(secondReplicaConnection, dataSource.getConnection());
+        assertSame(firstReplicaConnection, dataSource.getConnection());
+        assertEquals(3, meterRegistry.get("datasource.reads").tag("target", "replica").counter().count());
+    }
+
+    @Test
+    void primaryReadsGoToPrimary() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertSame(primaryConnection, PrimaryReads.call(this::connection));
+        assertSame(firstReplicaConnection, dataSource.getConnection());
+        assertEquals(1, meterRegistry.get("datasource.reads").tag("target", "primary").counter().count());
+    }
+
+    @Test
+    void explicitCredentialsGoToPrimary() throws SQLException {
+        when(primary.getConnection("reporting", "secret")).thenReturn(primaryConnection);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertSame(primaryConnection, dataSource.getConnection("reporting", "secret"));
+    }
+
+    @Test
+    void recentWriterReadsFromPrimary() throws SQLException {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(new UserPrincipal(1, "base@mail.ru", "base"), null, List.of()));
+        TransactionExecution write = mock(TransactionExecution.class);
+        when(write.isReadOnly()).thenReturn(false);
+        readYourWritesTracker.afterCommit(write, null);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertSame(primaryConnection, dataSource.getConnection());
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(new UserPrincipal(2, "user@mail.ru", "user"), null, List.of()));
+        assertNotSame(primaryConnection, dataSource.getConnection());
+    }
+
+    @Test
+    void failedReplicaLeavesRotationUntilHealthCheckPasses() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(secondReplica.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        assertSame(firstReplicaConnection, dataSource.getConnection());
+        assertSame(firstReplicaConnection, dataSource.getConnection());
+        assertSame(firstReplicaConnection, dataSource.getConnection());
+        assertEquals(1, dataSource.getHealthyReplicaCount());
+        assertEquals(0, meterRegistry.get("datasource.replica.healthy").tag("replica", "replica-2").gauge().value());
+
+        dataSource.checkHealth();
+        assertEquals(1, dataSource.getHealthyReplicaCount());
+
+        doReturn(secondReplicaConnection).when(secondReplica).getConnection();
+        dataSource.checkHealth();
+        assertEquals(2, dataSource.getHealthyReplicaCount());
+        assertSame(secondReplicaConnection, dataSource.getConnection());
+    }
+
+    @Test
+    void readsFallBackToPrimaryWithoutHealthyReplicas() throws SQLException {
+        when(firstReplicaConnection.isValid(anyInt())).thenReturn(false);
+        when(secondReplicaConnection.isValid(anyInt())).thenReturn(false);
+        dataSource.checkHealth();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertEquals(1, meterRegistry.get("datasource.reads").tag("target", "primary").counter().count());
+    }
+
+    private Connection connection() {
+        try {
+            return dataSource.getConnection();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.datasource;
+
+import com.example.dto.LoginDTO;
+import com.example.dto.UserDTO;
+import com.example.security.TaskAuthorizationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.Filter;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_CLASS;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs against a replica that has replayed none of the primary's users and tasks, see stale_replica.sql, and checks
+ * that the reads whose results must not lag behind a write are answered by the primary.
+ */
+@SpringBootTest(properties = {
+        "replica.datasource.urls=${spring.datasource.url}?currentSchema=stale_replica%2Cpublic",
+        "replica.max-lag=0"})
+@ActiveProfiles("test")
+@Sql(scripts = {"classpath:before_tests.sql", "classpath:stale_replica.sql"}, executionPhase = BEFORE_TEST_CLASS)
+class StaleReplicaTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private Filter springSecurityFilterChain;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskAuthorizationService taskAuthorizationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setup() {
+        this.mockMvc = MockMvcBuilders.webAppContextSetup(this.webApplicationContext).addFilters(springSecurityFilterChain).build();
+    }
+
+    @Test
+    void participantsComeFromPrimary() {
+        assertTrue(taskAuthorizationService.isExecutor(3, 2));
+
+        jdbcTemplate.update("update task set executor_id = 1 where id = 2");
+        taskAuthorizationService.invalidate(2);
+
+        assertFalse(taskAuthorizationService.isExecutor(3, 2));
+        assertTrue(taskAuthorizationService.isExecutor(1, 2));
+    }
+
+    @Test
+    void registeredUserLogsInRightAway() throws Exception {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setUsername("replica-user");
+        userDTO.setMail("replica-user@mail.ru");
+        userDTO.setPassword("password");
+        this.mockMvc.perform(post("/login/register").content(objectMapper.writeValueAsString(userDTO)).contentType("application/JSON"))
+                .andExpect(status().isOk());
+
+        LoginDTO loginDTO = new LoginDTO();
+        loginDTO.setMail("replica-user@mail.ru");
+        loginDTO.setPassword("password");
+        String response = this.mockMvc.perform(post("/login").content(objectMapper.writeValueAsString(loginDTO)).contentType("application/JSON"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        Integer userId = jdbcTemplate.queryForObject("select id from user_table where mail = 'replica-user@mail.ru'", Integer.class);
+        this.mockMvc.perform(get("/api/task/get-by-owner").param("id", String.valueOf(userId))
+                        .header("Authorization", "Bearer " + new JSONObject(response).getString("token")))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.load;
+
+import com.example.Application;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives /login and /api/task with a weighted request mix against a synthetic dataset in the test database.
+ * Run with {@code mvn test -P load-test -Dtest=ApiLoadTest}. The mix is set with
+ * {@code -Dload.mix=get-task=40,create-task=10,...}; the dataset with the {@code data.*} properties of {@link DatasetSpec}.
+ * Pass {@code -Dload.generate=false} to reuse a dataset that is already loaded.
+ */
+@Tag("load")
+class ApiLoadTest {
+
+    private static final String DEFAULT_MIX = "login=2,get-task=35,get-by-owner-page=25,get-by-owner=10,comments=10,create-task=15,batch-create=3";
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private final DatasetSpec spec = DatasetSpec.fromSystemProperties();
+
+    private final int batchSize = Integer.getInteger("load.batch-size", 100);
+
+    private String baseUrl;
+
+    private List<String> tokens;
+
+    @Test
+    void requestMix() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .profiles("test")
+                .properties("server.port=0", "spring.jpa.properties.hibernate.show_sql=false")
+                .run()) {
+            if (Boolean.parseBoolean(System.getProperty("load.generate", "true"))) {
+                try (Connection connection = context.getBean(DataSource.class).getConnection()) {
+                    new SyntheticDataGenerator(spec).load(connection);
+                }
+            }
+
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            tokens = new ArrayList<>();
+            for (int userId = 1; userId <= Math.min(spec.users(), Integer.getInteger("load.sessions", 20)); userId++) {
+                tokens.add(login(userId));
+            }
+
+            List<LoadTestRunner.Scenario> scenarios = new ArrayList<>();
+            parseMix(System.getProperty("load.mix", DEFAULT_MIX)).forEach((name, weight) -> scenarios.add(new LoadTestRunner.Scenario(name, weight, scenario(name))));
+
+            List<LoadTestResult> results = LoadTestRunner.runMix("mix", LoadTestRunner.concurrency(), LoadTestRunner.warmup(), LoadTestRunner.duration(), scenarios);
+            LoadTestRunner.report("api-mix", results);
+            assertTrue(results.get(results.size() - 1).requests() > 0);
+        }
+    }
+
+    private LoadTestRunner.Request scenario(String name) {
+        return switch (name) {
+            case "login" -> () -> send(post("/login", loginBody(randomUser())));
+            case "get-task" -> () -> send(get("/api/task/" + randomTask()));
+            case "get-by-owner-page" -> () -> send(get("/api/task/get-by-owner/page?id=" + randomUser() + "&tasks_per_page=20"));
+            case "get-by-owner" -> () -> send(get("/api/task/get-by-owner?id=" + randomUser() + "&page=0&tasks_per_page=20"));
+            case "comments" -> () -> send(get("/api/task/" + randomTask() + "/comments?comments_per_page=20"));
+            case "create-task" -> () -> send(post("/api/task", taskBody()));
+            case "batch-create" -> () -> send(post("/api/task/batch", batchBody()));
+            default -> throw new IllegalArgumentException("Unknown load test scenario " + name);
+        };
+    }
+
+    private int send(HttpRequest.Builder request) throws Exception {
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return authorized(HttpRequest.newBuilder(URI.create(baseUrl + path)).GET());
+    }
+
+    private HttpRequest.Builder post(String path, String body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json").header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        return path.equals("/login") ? request : authorized(request);
+    }
+
+    private HttpRequest.Builder authorized(HttpRequest.Builder request) {
+        return request.header("Authorization", "Bearer " + tokens.get(ThreadLocalRandom.current().nextInt(tokens.size())));
+    }
+
+    private String login(int userId) throws Exception {
+        HttpRequest request = post("/login", loginBody(userId)).build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), response.body());
+        return response.body().replaceAll(".*\"token\"\\s*:\\s*\"([^\"]+)\".*", "$1");
+    }
+
+    private static String loginBody(int userId) {
+        return "{\"mail\":\"user" + userId + "@load.test\",\"password\":\"" + SyntheticDataGenerator.PASSWORD + "\"}";
+    }
+
+    private String taskBody() {
+        return "{\"title\":\"load-task\",\"description\":\"created by the load test\",\"taskState\":\"WAITING\",\"taskPriority\":\"MEDIUM\","
+                + "\"ownerId\":" + randomUser() + ",\"executorId\":" + randomUser() + "}";
+    }
+
+    private String batchBody() {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < batchSize; i++) {
+            if (i > 0) body.append(',');
+            body.append(taskBody());
+        }
+        return body.append(']').toString();
+    }
+
+    private int randomUser() {
+        return ThreadLocalRandom.current().nextInt(spec.users()) + 1;
+    }
+
+    private int randomTask() {
+        return ThreadLocalRandom.current().nextInt(spec.tasks()) + 1;
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            weights.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
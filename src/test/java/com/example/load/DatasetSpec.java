@@ -0,0 +1,22 @@
+package com.example.load;
+
+/**
+ * Shape of a synthetic dataset. Task owners follow a Zipf distribution with exponent {@code ownerSkew},
+ * so a handful of users own most tasks. Most tasks get a few comments, and a {@code hotTaskRatio} share of them
+ * gets {@code hotTaskComments} comments each.
+ */
+public record DatasetSpec(int users, int tasks, double ownerSkew, double executorRatio, double meanComments,
+                          double hotTaskRatio, int hotTaskComments, long seed) {
+
+    public static DatasetSpec fromSystemProperties() {
+        return new DatasetSpec(
+                Integer.getInteger("data.users", 100_000),
+                Integer.getInteger("data.tasks", 2_000_000),
+                Double.parseDouble(System.getProperty("data.owner-skew", "1.1")),
+                Double.parseDouble(System.getProperty("data.executor-ratio", "0.7")),
+                Double.parseDouble(System.getProperty("data.mean-comments", "2")),
+                Double.parseDouble(System.getProperty("data.hot-task-ratio", "0.0005")),
+                Integer.getInteger("data.hot-task-comments", 3000),
+                Long.getLong("data.seed", 42));
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.load;
+
+import java.util.Locale;
+
+public record LoadTestResult(String name, int concurrency, long requests, long errors, double throughput,
+                             double p50Millis, double p90Millis, double p99Millis, double maxMillis) {
+
+    public static String header() {
+        return String.format(Locale.ROOT, "%-32s %6s %10s %8s %10s %9s %9s %9s %9s",
+                "scenario", "conc", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%-32s %6d %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f",
+                name, concurrency, requests, errors, throughput, p50Millis, p90Millis, p99Millis, maxMillis);
+    }
+
+    public String toJson() {
+        return String.format(Locale.ROOT, "{\"name\":\"%s\",\"concurrency\":%d,\"requests\":%d,\"errors\":%d,\"throughput\":%.1f,"
+                        + "\"p50Millis\":%.3f,\"p90Millis\":%.3f,\"p99Millis\":%.3f,\"maxMillis\":%.3f}",
+                name, concurrency, requests, errors, throughput, p50Millis, p90Millis, p99Millis, maxMillis);
+    }
+}
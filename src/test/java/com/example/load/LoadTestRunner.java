@@ -0,0 +1,196 @@
+package com.example.load;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Closed-loop load generator: every client thread sends its next request as soon as the previous one completes.
+ * Requests finished during the warm-up are discarded, the rest are reported as throughput and latency percentiles.
+ */
+public final class LoadTestRunner {
+
+    @FunctionalInterface
+    public interface Request {
+
+        /**
+         * Sends one request and returns its HTTP status.
+         */
+        int send() throws Exception;
+    }
+
+    /**
+     * One kind of request in a mix; each client picks the next scenario at random in proportion to its weight.
+     */
+    public record Scenario(String name, int weight, Request request) {
+    }
+
+    private LoadTestRunner() {
+    }
+
+    public static int concurrency() {
+        return Integer.getInteger("load.concurrency", 400);
+    }
+
+    public static Duration warmup() {
+        return Duration.parse(System.getProperty("load.warmup", "PT5S"));
+    }
+
+    public static Duration duration() {
+        return Duration.parse(System.getProperty("load.duration", "PT30S"));
+    }
+
+    public static LoadTestResult run(String name, int concurrency, Duration warmup, Duration duration, Request request) throws InterruptedException {
+        return runMix(name, concurrency, warmup, duration, List.of(new Scenario(name, 1, request))).get(0);
+    }
+
+    /**
+     * Runs a weighted mix of scenarios and returns one result per scenario followed by the total over all of them.
+     */
+    public static List<LoadTestResult> runMix(String name, int concurrency, Duration warmup, Duration duration, List<Scenario> scenarios) throws InterruptedException {
+        List<Scenario> active = scenarios.stream().filter(x -> x.weight() > 0).toList();
+        if (active.isEmpty()) throw new IllegalArgumentException("Load test mix has no scenario with a positive weight");
+
+        int[] cumulativeWeights = new int[active.size()];
+        int totalWeight = 0;
+        for (int i = 0; i < active.size(); i++) {
+            totalWeight += active.get(i).weight();
+            cumulativeWeights[i] = totalWeight;
+        }
+
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+        Worker[] workers = new Worker[concurrency];
+        CountDownLatch done = new CountDownLatch(concurrency);
+
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            Worker worker = new Worker(active, cumulativeWeights, measureFrom, measureUntil, done);
+            workers[i] = worker;
+            clients.execute(worker);
+        }
+        done.await();
+        clients.shutdown();
+        clients.awaitTermination(10, TimeUnit.SECONDS);
+
+        List<LoadTestResult> results = new ArrayList<>();
+        if (active.size() > 1) {
+            for (int i = 0; i < active.size(); i++) {
+                results.add(result(name + " " + active.get(i).name(), concurrency, duration, workers, new int[]{i}));
+            }
+        }
+        results.add(result(active.size() > 1 ? name + " total" : active.get(0).name(), concurrency, duration, workers,
+                IntStream.range(0, active.size()).toArray()));
+        return results;
+    }
+
+    public static void report(String reportName, List<LoadTestResult> results) throws IOException {
+        System.out.println(LoadTestResult.header());
+        results.forEach(System.out::println);
+
+        Path report = Path.of("target", "load-tests", reportName + ".json");
+        Files.createDirectories(report.getParent());
+        Files.writeString(report, results.stream().map(LoadTestResult::toJson).collect(Collectors.joining(",\n  ", "[\n  ", "\n]\n")));
+    }
+
+    private static LoadTestResult result(String name, int concurrency, Duration duration, Worker[] workers, int[] scenarioIndexes) {
+        int requests = 0;
+        long errors = 0;
+        for (Worker worker : workers) {
+            for (int scenario : scenarioIndexes) {
+                requests += worker.counts[scenario];
+                errors += worker.errors[scenario];
+            }
+        }
+        long[] latencies = new long[requests];
+        int offset = 0;
+        for (Worker worker : workers) {
+            for (int scenario : scenarioIndexes) {
+                System.arraycopy(worker.latencies[scenario], 0, latencies, offset, worker.counts[scenario]);
+                offset += worker.counts[scenario];
+            }
+        }
+        Arrays.sort(latencies);
+
+        return new LoadTestResult(name, concurrency, requests, errors, requests / (duration.toNanos() / 1e9),
+                percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99), percentile(latencies, 1.0));
+    }
+
+    private static double percentile(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) return 0;
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1e6;
+    }
+
+    private static class Worker implements Runnable {
+
+        private final List<Scenario> scenarios;
+
+        private final int[] cumulativeWeights;
+
+        private final long measureFrom;
+
+        private final long measureUntil;
+
+        private final CountDownLatch done;
+
+        private final long[][] latencies;
+
+        private final int[] counts;
+
+        private final long[] errors;
+
+        Worker(List<Scenario> scenarios, int[] cumulativeWeights, long measureFrom, long measureUntil, CountDownLatch done) {
+            this.scenarios = scenarios;
+            this.cumulativeWeights = cumulativeWeights;
+            this.measureFrom = measureFrom;
+            this.measureUntil = measureUntil;
+            this.done = done;
+            this.latencies = new long[scenarios.size()][256];
+            this.counts = new int[scenarios.size()];
+            this.errors = new long[scenarios.size()];
+        }
+
+        @Override
+        public void run() {
+            try {
+                long start;
+                while ((start = System.nanoTime()) < measureUntil) {
+                    int scenario = pickScenario();
+                    boolean failed;
+                    try {
+                        int status = scenarios.get(scenario).request().send();
+                        failed = status >= 400;
+                    } catch (Exception e) {
+                        failed = true;
+                    }
+                    if (start < measureFrom) continue;
+
+                    if (counts[scenario] == latencies[scenario].length) latencies[scenario] = Arrays.copyOf(latencies[scenario], counts[scenario] * 2);
+                    latencies[scenario][counts[scenario]++] = System.nanoTime() - start;
+                    if (failed) errors[scenario]++;
+                }
+            } finally {
+                done.countDown();
+            }
+        }
+
+        private int pickScenario() {
+            if (scenarios.size() == 1) return 0;
+            int ticket = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            int index = Arrays.binarySearch(cumulativeWeights, ticket + 1);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+}
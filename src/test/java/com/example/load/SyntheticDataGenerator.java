@@ -0,0 +1,270 @@
+package com.example.load;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Replaces the contents of user_table, task and comment with a skewed synthetic dataset described by a {@link DatasetSpec}.
+ * PostgreSQL is loaded with COPY, any other database (H2 in PostgreSQL mode) with batched inserts.
+ * Every generated user is {@code user<id>@load.test} with the password {@value #PASSWORD}.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.example.load.SyntheticDataGenerator \
+ *     -Ddata.url=jdbc:postgresql://localhost:5433/task_manager -Ddata.tasks=5000000
+ * </pre>
+ */
+public class SyntheticDataGenerator {
+
+    public static final String PASSWORD = "password";
+
+    /**
+     * BCrypt hash of {@link #PASSWORD} with cost 4; logins re-hash it with the calibrated cost.
+     */
+    private static final String PASSWORD_HASH = "$2a$04$B5Y3BCPlqIQ90snRfNsrsOxyGIHrxAa343vKIBCV/0mxT.Rewdtaa";
+
+    private static final String[] STATES = {"IN_PROGRESS", "WAITING", "COMPLETED"};
+
+    private static final String[] PRIORITIES = {"HI", "MEDIUM", "LOW"};
+
+    private static final int BATCH_SIZE = 10_000;
+
+    private static final String COUNT_TASKS = "insert into task_counter (user_id, role, state, priority, task_count) "
+            + "select %s, '%s', coalesce(state, 'NONE'), coalesce(priority, 'NONE'), count(*) from task "
+            + "where %s is not null group by %s, coalesce(state, 'NONE'), coalesce(priority, 'NONE')";
+
+    private final DatasetSpec spec;
+
+    private final double[] ownerDistribution;
+
+    public SyntheticDataGenerator(DatasetSpec spec) {
+        this.spec = spec;
+        this.ownerDistribution = zipfDistribution(spec.users(), spec.ownerSkew());
+    }
+
+    public static void main(String[] args) throws SQLException {
+        DatasetSpec spec = DatasetSpec.fromSystemProperties();
+        try (Connection connection = DriverManager.getConnection(
+                System.getProperty("data.url", "jdbc:postgresql://localhost:5433/task_manager"),
+                System.getProperty("data.username", "postgres"),
+                System.getProperty("data.password", "postgres"))) {
+            new SyntheticDataGenerator(spec).load(connection);
+        }
+    }
+
+    public void load(Connection connection) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            long start = System.nanoTime();
+            boolean postgres = connection.isWrapperFor(PGConnection.class);
+            clear(connection, postgres);
+
+            long comments = postgres ? copy(connection) : insert(connection);
+            restartIdentities(connection, comments);
+            countTasks(connection);
+            connection.commit();
+
+            System.out.printf("Loaded %d users, %d tasks and %d comments in %d s%n",
+                    spec.users(), spec.tasks(), comments, (System.nanoTime() - start) / 1_000_000_000);
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private void clear(Connection connection, boolean postgres) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            if (postgres) {
+                statement.execute("truncate table comment, task_counter, task, user_table");
+            } else {
+                statement.execute("delete from comment");
+                statement.execute("delete from task_counter");
+                statement.execute("delete from task");
+                statement.execute("delete from user_table");
+            }
+        }
+    }
+
+    private long copy(Connection connection) throws SQLException {
+        CopyBuffer users = new CopyBuffer(connection, "copy user_table (id, username, mail, password) from stdin");
+        for (int id = 1; id <= spec.users(); id++) {
+            users.row(id, "user" + id, "user" + id + "@load.test", PASSWORD_HASH);
+        }
+        users.finish();
+
+        // a connection runs one COPY at a time, so comments follow in a second pass with their own random stream
+        SplittableRandom taskRandom = new SplittableRandom(spec.seed());
+        CopyBuffer tasks = new CopyBuffer(connection, "copy task (id, title, description, state, priority, owner_id, executor_id) from stdin");
+        for (int id = 1; id <= spec.tasks(); id++) {
+            TaskRow task = nextTask(id, taskRandom);
+            tasks.row(id, task.title, task.description, task.state, task.priority, task.ownerId, task.executorId);
+        }
+        tasks.finish();
+
+        SplittableRandom commentRandom = new SplittableRandom(spec.seed() + 1);
+        CopyBuffer comments = new CopyBuffer(connection, "copy comment (id, text, user_id, task_id) from stdin");
+        long commentId = 0;
+        for (int id = 1; id <= spec.tasks(); id++) {
+            int commentCount = nextCommentCount(commentRandom);
+            for (int i = 0; i < commentCount; i++) {
+                commentId++;
+                comments.row(commentId, "comment " + commentId, nextUser(commentRandom), id);
+            }
+        }
+        comments.finish();
+        return commentId;
+    }
+
+    private long insert(Connection connection) throws SQLException {
+        try (PreparedStatement users = connection.prepareStatement("insert into user_table (id, username, mail, password) values (?, ?, ?, ?)")) {
+            for (int id = 1; id <= spec.users(); id++) {
+                users.setInt(1, id);
+                users.setString(2, "user" + id);
+                users.setString(3, "user" + id + "@load.test");
+                users.setString(4, PASSWORD_HASH);
+                users.addBatch();
+                if (id % BATCH_SIZE == 0) users.executeBatch();
+            }
+            users.executeBatch();
+        }
+
+        SplittableRandom taskRandom = new SplittableRandom(spec.seed());
+        try (PreparedStatement tasks = connection.prepareStatement("insert into task (id, title, description, state, priority, owner_id, executor_id) values (?, ?, ?, ?, ?, ?, ?)")) {
+            for (int id = 1; id <= spec.tasks(); id++) {
+                TaskRow task = nextTask(id, taskRandom);
+                tasks.setInt(1, id);
+                tasks.setString(2, task.title);
+                tasks.setString(3, task.description);
+                tasks.setString(4, task.state);
+                tasks.setString(5, task.priority);
+                tasks.setInt(6, task.ownerId);
+                tasks.setObject(7, task.executorId, Types.INTEGER);
+                tasks.addBatch();
+                if (id % BATCH_SIZE == 0) tasks.executeBatch();
+            }
+            tasks.executeBatch();
+        }
+
+        SplittableRandom commentRandom = new SplittableRandom(spec.seed() + 1);
+        long commentId = 0;
+        try (PreparedStatement comments = connection.prepareStatement("insert into comment (id, text, user_id, task_id) values (?, ?, ?, ?)")) {
+            for (int id = 1; id <= spec.tasks(); id++) {
+                int commentCount = nextCommentCount(commentRandom);
+                for (int i = 0; i < commentCount; i++) {
+                    commentId++;
+                    comments.setLong(1, commentId);
+                    comments.setString(2, "comment " + commentId);
+                    comments.setInt(3, nextUser(commentRandom));
+                    comments.setInt(4, id);
+                    comments.addBatch();
+                    if (commentId % BATCH_SIZE == 0) comments.executeBatch();
+                }
+            }
+            comments.executeBatch();
+        }
+        return commentId;
+    }
+
+    private void restartIdentities(Connection connection, long comments) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("alter table user_table alter column id restart with " + (spec.users() + 1));
+            statement.execute("alter table comment alter column id restart with " + (comments + 1));
+            statement.execute("alter sequence task_id_seq restart with " + (spec.tasks() + 1));
+        }
+    }
+
+    private void countTasks(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(String.format(COUNT_TASKS, "owner_id", "OWNER", "owner_id", "owner_id"));
+            statement.execute(String.format(COUNT_TASKS, "executor_id", "EXECUTOR", "executor_id", "executor_id"));
+        }
+    }
+
+    private TaskRow nextTask(int id, SplittableRandom random) {
+        Integer executorId = random.nextDouble() < spec.executorRatio() ? nextUser(random) : null;
+        return new TaskRow("task-" + id, "synthetic task " + id, STATES[random.nextInt(STATES.length)],
+                PRIORITIES[random.nextInt(PRIORITIES.length)], nextOwner(random), executorId);
+    }
+
+    private int nextOwner(SplittableRandom random) {
+        int index = Arrays.binarySearch(ownerDistribution, random.nextDouble());
+        return Math.min((index >= 0 ? index : -index - 1), spec.users() - 1) + 1;
+    }
+
+    private int nextUser(SplittableRandom random) {
+        return random.nextInt(spec.users()) + 1;
+    }
+
+    private int nextCommentCount(SplittableRandom random) {
+        if (random.nextDouble() < spec.hotTaskRatio()) return spec.hotTaskComments();
+        // geometric distribution with the configured mean
+        double p = 1 / (1 + spec.meanComments());
+        return (int) Math.floor(Math.log(1 - random.nextDouble()) / Math.log(1 - p));
+    }
+
+    /**
+     * Cumulative Zipf probabilities for ranks 1..n, so user 1 is the heaviest owner.
+     */
+    private static double[] zipfDistribution(int n, double exponent) {
+        double[] cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 1; rank <= n; rank++) {
+            sum += 1 / Math.pow(rank, exponent);
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    private record TaskRow(String title, String description, String state, String priority, int ownerId, Integer executorId) {
+    }
+
+    /**
+     * Buffers rows in PostgreSQL text COPY format and flushes them to the server in large chunks.
+     */
+    private static class CopyBuffer {
+
+        private static final int FLUSH_SIZE = 1 << 20;
+
+        private final CopyIn copyIn;
+
+        private final StringBuilder buffer = new StringBuilder(FLUSH_SIZE + 1024);
+
+        CopyBuffer(Connection connection, String sql) throws SQLException {
+            this.copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+        }
+
+        void row(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) buffer.append('\t');
+                buffer.append(values[i] == null ? "\\N" : values[i]);
+            }
+            buffer.append('\n');
+            if (buffer.length() >= FLUSH_SIZE) flush();
+        }
+
+        void finish() throws SQLException {
+            flush();
+            copyIn.endCopy();
+        }
+
+        private void flush() throws SQLException {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+    }
+}
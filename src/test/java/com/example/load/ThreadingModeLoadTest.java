@@ -0,0 +1,69 @@
+package com.example.load;
+
+import com.example.Application;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the platform-thread and virtual-thread servlet stacks under the same closed-loop load against
+ * the test database. Run with {@code mvn test -P load-test}; virtual threads are only measured on Java 21+.
+ */
+@Tag("load")
+class ThreadingModeLoadTest {
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    void compareThreadingModes() throws Exception {
+        List<LoadTestResult> results = new ArrayList<>();
+        results.add(measure(false));
+        if (Runtime.version().feature() >= 21) {
+            results.add(measure(true));
+        } else {
+            System.out.println("Virtual threads need Java 21, measuring platform threads only");
+        }
+        LoadTestRunner.report("threading-mode", results);
+    }
+
+    private LoadTestResult measure(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .profiles("test")
+                .properties("server.port=0", "spring.threads.virtual.enabled=" + virtualThreads, "spring.jpa.properties.hibernate.show_sql=false")
+                .run()) {
+            new ResourceDatabasePopulator(new ClassPathResource("before_tests.sql")).execute(context.getBean(DataSource.class));
+
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            String token = login(baseUrl);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/task/get-by-owner/page?id=1&tasks_per_page=20"))
+                    .header("Authorization", "Bearer " + token).GET().build();
+
+            String name = (virtualThreads ? "virtual" : "platform") + " get-by-owner/page";
+            LoadTestResult result = LoadTestRunner.run(name, LoadTestRunner.concurrency(), LoadTestRunner.warmup(), LoadTestRunner.duration(),
+                    () -> httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+            assertTrue(result.requests() > 0);
+            return result;
+        }
+    }
+
+    private String login(String baseUrl) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/login"))
+                .header("Content-Type", "application/JSON").header("Accept", "application/JSON")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"mail\":\"base@mail.ru\",\"password\":\"password\"}")).build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        return response.body().replaceAll(".*\"token\"\\s*:\\s*\"([^\"]+)\".*", "$1");
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.monitoring;
+
+import org.junit.jupiter.api.Test;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestStatementsTest {
+
+    @Test
+    void countsHandlerStatementsFromFirstMark() {
+        RequestStatements statements = new RequestStatements();
+        statements.record("select principal");
+        statements.markHandlerStart();
+        statements.record("select task");
+        statements.markHandlerStart();
+        statements.record("select comment");
+
+        assertEquals(3, statements.getTotal());
+        assertEquals(2, statements.getHandlerCount());
+    }
+
+    @Test
+    void countsNoHandlerStatementsWithoutMark() {
+        RequestStatements statements = new RequestStatements();
+        statements.record("select principal");
+
+        assertEquals(1, statements.getTotal());
+        assertEquals(0, statements.getHandlerCount());
+    }
+
+    @Test
+    void reportsStatementsRepeatedAtLeastThreshold() {
+        RequestStatements statements = new RequestStatements();
+        statements.record("select task");
+        for (int i = 0; i < 5; i++) {
+            statements.record("select user");
+        }
+
+        assertEquals(Map.of("select user", 5), statements.getRepeatedStatements(5));
+        assertTrue(statements.getRepeatedStatements(6).isEmpty());
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.monitoring;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MockMvc matchers over the statements counted by {@link SqlStatementCountingFilter}; the filter has to be
+ * added to the MockMvc instance.
+ */
+public final class SqlStatementMatchers {
+
+    private SqlStatementMatchers() {
+    }
+
+    /**
+     * Pins the number of statements run by the controller method, leaving out authentication, which depends on cache state.
+     */
+    public static ResultMatcher handlerStatements(int expected) {
+        return result -> {
+            RequestStatements statements = statements(result.getRequest().getAttribute(SqlStatementCounter.REQUEST_ATTRIBUTE));
+            assertEquals(expected, statements.getHandlerCount(), "SQL statements run by the handler: " + statements);
+        };
+    }
+
+    public static ResultMatcher totalStatementsAtMost(int max) {
+        return result -> {
+            RequestStatements statements = statements(result.getRequest().getAttribute(SqlStatementCounter.REQUEST_ATTRIBUTE));
+            assertTrue(statements.getTotal() <= max, "Expected at most " + max + " SQL statements, got " + statements);
+        };
+    }
+
+    public static ResultMatcher noRepeatedStatements(int threshold) {
+        return result -> {
+            RequestStatements statements = statements(result.getRequest().getAttribute(SqlStatementCounter.REQUEST_ATTRIBUTE));
+            assertTrue(statements.getRepeatedStatements(threshold).isEmpty(), "Possible N+1 select: " + statements.getRepeatedStatements(threshold));
+        };
+    }
+
+    private static RequestStatements statements(Object attribute) {
+        assertNotNull(attribute, "No SQL statements recorded, is SqlStatementCountingFilter added to MockMvc?");
+        return (RequestStatements) attribute;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenProviderTest {
+
+    private static final String SIGNING_KEY = "shstDXJ2+hxhMSL/SANOJXugwomm5r98q5qvscxya8qgcqsgKAHQPXHAasnxnbsqs1394mxjJJmrnyx29238345267281kajhsgdewuiiqjqhgsgshjsSDFGHJKERTYDFG";
+
+    private JwtTokenProvider jwtTokenProvider;
+
+    @BeforeEach
+    void setup() {
+        jwtTokenProvider = new JwtTokenProvider(SIGNING_KEY, 100);
+    }
+
+    @Test
+    void verifiesTokenOncePerLifetime() {
+        String token = jwtTokenProvider.createToken("base@mail.ru");
+
+        assertEquals("base@mail.ru", jwtTokenProvider.getUsername(token));
+        assertFalse(jwtTokenProvider.isTokenExpired(token));
+
+        assertEquals(1, jwtTokenProvider.getVerifiedTokenCacheStats().missCount());
+        assertEquals(1, jwtTokenProvider.getVerifiedTokenCacheStats().hitCount());
+        assertEquals(1, jwtTokenProvider.getVerifiedTokenCacheSize());
+    }
+
+    @Test
+    void rejectsTamperedToken() {
+        String token = jwtTokenProvider.createToken("base@mail.ru");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertTrue(jwtTokenProvider.verify(tampered).isEmpty());
+        assertNull(jwtTokenProvider.getUsername(tampered));
+        assertEquals(0, jwtTokenProvider.getVerifiedTokenCacheSize());
+    }
+
+    @Test
+    void rejectsExpiredToken() {
+        Date past = new Date(System.currentTimeMillis() - 60000);
+        String token = Jwts.builder().subject("base@mail.ru").issuedAt(past).expiration(past)
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SIGNING_KEY))).compact();
+
+        assertTrue(jwtTokenProvider.isTokenExpired(token));
+        assertEquals(0, jwtTokenProvider.getVerifiedTokenCacheSize());
+    }
+}
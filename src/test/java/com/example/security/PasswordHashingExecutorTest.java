@@ -0,0 +1,75 @@
+package com.example.security;
+
+import com.example.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @BeforeEach
+    void setup() {
+        passwordHashingExecutor = new PasswordHashingExecutor(1, 1, Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void shutdown() {
+        passwordHashingExecutor.shutdown();
+    }
+
+    @Test
+    void returnsResultOfTask() {
+        assertEquals("hash", passwordHashingExecutor.execute(() -> "hash"));
+    }
+
+    @Test
+    void rethrowsExceptionOfTask() {
+        assertThrows(BadCredentialsException.class, () -> passwordHashingExecutor.execute(() -> {
+            throw new BadCredentialsException("Bad credentials");
+        }));
+    }
+
+    @Test
+    void rejectsWorkBeyondQueueCapacity() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Object> running = CompletableFuture.supplyAsync(() -> passwordHashingExecutor.execute(() -> {
+            started.countDown();
+            return await(release);
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Object> queued = CompletableFuture.supplyAsync(() -> passwordHashingExecutor.execute(() -> await(release)));
+        while (passwordHashingExecutor.getQueueSize() == 0) Thread.onSpinWait();
+
+        assertThrows(ServiceOverloadedException.class, () -> passwordHashingExecutor.execute(() -> "hash"));
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void calibratesStrengthToTargetLatency() {
+        assertEquals(10, BCryptStrengthCalibration.strengthFor(100, 100, 10, 16));
+        assertEquals(12, BCryptStrengthCalibration.strengthFor(450, 100, 10, 16));
+        assertEquals(16, BCryptStrengthCalibration.strengthFor(1_000_000, 100, 10, 16));
+    }
+
+    private static Object await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+}
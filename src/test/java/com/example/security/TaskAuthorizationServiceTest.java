@@ -0,0 +1,57 @@
+package com.example.security;
+
+import com.example.repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TaskAuthorizationServiceTest {
+
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+
+    @Test
+    void answersFromParticipantsIndex() {
+        TaskAuthorizationService service = new TaskAuthorizationService(taskRepository, true, 100);
+        when(taskRepository.findParticipantsById(1)).thenReturn(Optional.of(new TaskParticipants(1, 2, 3)));
+
+        assertTrue(service.isOwner(2, 1));
+        assertFalse(service.isOwner(3, 1));
+        assertTrue(service.isExecutor(3, 1));
+        assertTrue(service.isOwnerOrExecutor(3, 1));
+        assertFalse(service.isOwnerOrExecutor(4, 1));
+
+        verify(taskRepository, times(1)).findParticipantsById(1);
+    }
+
+    @Test
+    void reloadsParticipantsAfterInvalidation() {
+        TaskAuthorizationService service = new TaskAuthorizationService(taskRepository, true, 100);
+        when(taskRepository.findParticipantsById(1))
+                .thenReturn(Optional.of(new TaskParticipants(1, 2, null)))
+                .thenReturn(Optional.of(new TaskParticipants(1, 2, 3)));
+
+        assertFalse(service.isExecutor(3, 1));
+        service.invalidate(1);
+        assertTrue(service.isExecutor(3, 1));
+    }
+
+    @Test
+    void unknownTaskIsNotAuthorized() {
+        TaskAuthorizationService service = new TaskAuthorizationService(taskRepository, true, 100);
+        when(taskRepository.findParticipantsById(5)).thenReturn(Optional.empty());
+
+        assertFalse(service.isOwnerOrExecutor(2, 5));
+    }
+
+    @Test
+    void usesExistenceQueriesWithoutIndex() {
+        TaskAuthorizationService service = new TaskAuthorizationService(taskRepository, false, 100);
+        when(taskRepository.existsByIdAndOwner_Id(1, 2)).thenReturn(true);
+
+        assertTrue(service.isOwner(2, 1));
+        assertFalse(service.isExecutor(2, 1));
+        verify(taskRepository, never()).findParticipantsById(anyInt());
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.security;
+
+import com.example.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserPrincipalCacheTest {
+
+    private UserRepository userRepository;
+
+    private UserPrincipalCache userPrincipalCache;
+
+    @BeforeEach
+    void setup() {
+        userRepository = mock(UserRepository.class);
+        userPrincipalCache = new UserPrincipalCache(userRepository, 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void loadsPrincipalFromDatabaseOnce() {
+        when(userRepository.findPrincipalByMail("base@mail.ru")).thenReturn(Optional.of(new UserPrincipal(1, "base@mail.ru", "base")));
+
+        assertEquals(1, userPrincipalCache.getPrincipal("base@mail.ru").get().id());
+        assertEquals(1, userPrincipalCache.getPrincipal("base@mail.ru").get().id());
+
+        verify(userRepository, times(1)).findPrincipalByMail("base@mail.ru");
+        assertEquals(1, userPrincipalCache.getStats().hitCount());
+    }
+
+    @Test
+    void reloadsPrincipalAfterInvalidation() {
+        when(userRepository.findPrincipalByMail("base@mail.ru")).thenReturn(Optional.of(new UserPrincipal(1, "base@mail.ru", "base")));
+
+        userPrincipalCache.getPrincipal("base@mail.ru");
+        userPrincipalCache.invalidate("base@mail.ru");
+        userPrincipalCache.getPrincipal("base@mail.ru");
+
+        verify(userRepository, times(2)).findPrincipalByMail("base@mail.ru");
+    }
+
+    @Test
+    void doesNotCacheUnknownUser() {
+        when(userRepository.findPrincipalByMail("unknown@mail.ru")).thenReturn(Optional.empty());
+
+        assertTrue(userPrincipalCache.getPrincipal("unknown@mail.ru").isEmpty());
+        assertEquals(0, userPrincipalCache.getSize());
+    }
+}
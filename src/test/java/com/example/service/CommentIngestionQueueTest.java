@@ -0,0 +1,106 @@
+package com.example.service;
+
+import com.example.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommentIngestionQueueTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicInteger ids = new AtomicInteger();
+
+    private final List<List<PendingComment>> batches = new CopyOnWriteArrayList<>();
+
+    private CommentIngestionQueue commentIngestionQueue;
+
+    @AfterEach
+    void shutdown() throws InterruptedException {
+        commentIngestionQueue.shutdown();
+    }
+
+    @Test
+    void writesAcceptedCommentsInBatches() throws InterruptedException {
+        commentIngestionQueue = queue(100, 3, Duration.ofMillis(200), batches::add);
+
+        for (int i = 0; i < 7; i++) {
+            assertEquals(i + 1, commentIngestionQueue.submit(1, 1, "comment " + i));
+        }
+
+        assertTrue(commentIngestionQueue.flush(Duration.ofSeconds(5)));
+        assertEquals(7, batches.stream().mapToInt(List::size).sum());
+        assertTrue(batches.stream().allMatch(x -> x.size() <= 3), batches.toString());
+        assertEquals(3, batches.get(0).size());
+    }
+
+    @Test
+    void dropsOnlyCommentsThatFailOnTheirOwn() throws InterruptedException {
+        commentIngestionQueue = queue(100, 10, Duration.ofMillis(50), batch -> {
+            if (batch.stream().anyMatch(x -> x.taskId() < 0)) throw new IllegalStateException("task not found");
+            batches.add(batch);
+        });
+
+        commentIngestionQueue.submit(1, 1, "first");
+        commentIngestionQueue.submit(-1, 1, "deleted task");
+        commentIngestionQueue.submit(1, 1, "second");
+
+        assertTrue(commentIngestionQueue.flush(Duration.ofSeconds(5)));
+        assertEquals(List.of("first", "second"), batches.stream().flatMap(List::stream).map(PendingComment::text).toList());
+        assertEquals(1, meterRegistry.get("comment.ingestion.failed").counter().count());
+    }
+
+    @Test
+    void refusesCommentsBeyondQueueCapacity() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        commentIngestionQueue = queue(1, 1, Duration.ofMillis(1), batch -> {
+            writing.countDown();
+            await(release);
+        });
+
+        commentIngestionQueue.submit(1, 1, "written");
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        commentIngestionQueue.submit(1, 1, "queued");
+
+        assertThrows(ServiceOverloadedException.class, () -> commentIngestionQueue.submit(1, 1, "refused"));
+
+        release.countDown();
+        assertTrue(commentIngestionQueue.flush(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void writesQueuedCommentsOnShutdown() throws InterruptedException {
+        commentIngestionQueue = queue(100, 100, Duration.ofMillis(200), batches::add);
+
+        commentIngestionQueue.submit(1, 1, "first");
+        commentIngestionQueue.submit(1, 1, "second");
+        commentIngestionQueue.shutdown();
+
+        assertEquals(2, batches.stream().mapToInt(List::size).sum());
+        assertThrows(ServiceOverloadedException.class, () -> commentIngestionQueue.submit(1, 1, "late"));
+    }
+
+    private CommentIngestionQueue queue(int capacity, int batchSize, Duration flushInterval, Consumer<List<PendingComment>> writer) {
+        return new CommentIngestionQueue(capacity, batchSize, flushInterval, Duration.ofSeconds(5), ids::incrementAndGet,
+                batch -> writer.accept(List.copyOf(batch)), meterRegistry);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
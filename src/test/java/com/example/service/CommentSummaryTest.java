@@ -0,0 +1,42 @@
+package com.example.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_CLASS;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Sql(scripts = "classpath:before_tests.sql", executionPhase = BEFORE_TEST_CLASS)
+class CommentSummaryTest {
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * More task ids than the 65535 bind parameters a PostgreSQL statement accepts.
+     */
+    @Test
+    void summarizesMoreTasksThanBindParameters() {
+        jdbcTemplate.update("insert into comment (text, user_id, task_id) select 'comment ' || i, 2, 2 from generate_series(1, 5) i");
+        List<Integer> taskIds = IntStream.rangeClosed(1, 70_000).boxed().toList();
+
+        Map<Integer, TaskCommentSummary> summaries = commentService.getCommentSummaries(taskIds);
+
+        assertEquals(1, summaries.size());
+        assertEquals(5, summaries.get(2).commentCount());
+        assertEquals(3, summaries.get(2).latestComments().size());
+        assertEquals("comment 5", summaries.get(2).latestComments().get(0).getText());
+    }
+}
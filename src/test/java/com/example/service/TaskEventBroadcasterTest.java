@@ -0,0 +1,72 @@
+package com.example.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskEventBroadcasterTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ExecutorService sender;
+
+    private TaskEventBroadcaster taskEventBroadcaster;
+
+    @BeforeEach
+    void setup() throws InterruptedException {
+        sender = Executors.newSingleThreadExecutor();
+        CountDownLatch started = new CountDownLatch(1);
+        sender.execute(() -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        taskEventBroadcaster = new TaskEventBroadcaster(2, Duration.ofMinutes(1), sender, meterRegistry);
+    }
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        taskEventBroadcaster.shutdown();
+    }
+
+    @Test
+    void dropsSubscriberWithFullBuffer() {
+        taskEventBroadcaster.subscribe(1);
+        taskEventBroadcaster.subscribe(2);
+
+        for (int taskId = 1; taskId <= 3; taskId++) {
+            taskEventBroadcaster.publish(new TaskEvent(TaskEventType.UPDATED, taskId, Set.of(1)));
+        }
+
+        assertEquals(1, taskEventBroadcaster.getSubscriberCount());
+        assertEquals(1, meterRegistry.get("task.events.dropped.subscribers").counter().count());
+    }
+
+    @Test
+    void keepsSubscriberWithinBuffer() {
+        taskEventBroadcaster.subscribe(1);
+
+        taskEventBroadcaster.publish(new TaskEvent(TaskEventType.CREATED, 1, Set.of(1, 2)));
+        taskEventBroadcaster.publish(new TaskEvent(TaskEventType.COMMENT_ADDED, 1, Set.of(1, 2)));
+
+        assertEquals(1, taskEventBroadcaster.getSubscriberCount());
+        assertEquals(0, meterRegistry.get("task.events.dropped.subscribers").counter().count());
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import com.example.model.TaskPriority;
+import com.example.model.TaskState;
+import com.example.monitoring.RequestStatements;
+import com.example.monitoring.SqlStatementCounter;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_CLASS;
+
+/**
+ * Explains the SQL Hibernate generates for the filtered and sorted task lists and checks that it runs as an index scan
+ * in the requested order. Sequential and bitmap scans are disabled because the test tables are too small to need an index.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Sql(scripts = {"classpath:before_tests.sql"}, executionPhase = BEFORE_TEST_CLASS)
+class TaskFilterQueryPlanTest {
+
+    private static final Map<TaskSort, String> SORT_INDEXES = Map.of(
+            TaskSort.TITLE, "title_idx",
+            TaskSort.STATE, "state_rank_idx",
+            TaskSort.PRIORITY, "priority_rank_idx");
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void ownerStateFilterScansOwnerIndex() throws SQLException {
+        String sql = taskListSql(() -> taskService.getTaskListByOwnerId(2, new TaskFilter(TaskState.WAITING, null, TaskSort.ID, Sort.Direction.ASC)));
+
+        String plan = explain(sql, "2", "'WAITING'");
+        assertTrue(plan.contains("Index Scan using task_owner_"), plan);
+        assertFalse(plan.contains("Sort"), plan);
+    }
+
+    @Test
+    void executorPriorityPageScansExecutorIndex() throws SQLException {
+        String sql = taskListSql(() -> taskService.getTaskPageByExecutorId(2, new TaskFilter(null, TaskPriority.HI, TaskSort.ID, Sort.Direction.ASC), null, 20));
+
+        String plan = explain(sql, "2", "0", "'HI'", "21");
+        assertTrue(plan.contains("Index Scan using task_executor_"), plan);
+        assertFalse(plan.contains("Sort"), plan);
+    }
+
+    @Test
+    void ownerSortsScanSortIndexesBackward() throws SQLException {
+        for (Map.Entry<TaskSort, String> sort : SORT_INDEXES.entrySet()) {
+            String sql = taskListSql(() -> taskService.getTaskListByOwnerId(2, new TaskFilter(null, null, sort.getKey(), Sort.Direction.DESC)));
+
+            String plan = explain(sql, "2");
+            assertTrue(plan.contains("Index Scan Backward using task_owner_" + sort.getValue()), plan);
+            assertFalse(plan.contains("Sort"), plan);
+        }
+    }
+
+    @Test
+    void executorSortsScanSortIndexes() throws SQLException {
+        for (Map.Entry<TaskSort, String> sort : SORT_INDEXES.entrySet()) {
+            String sql = taskListSql(() -> taskService.getTaskListByExecutorId(2, new TaskFilter(null, null, sort.getKey(), Sort.Direction.ASC)));
+
+            String plan = explain(sql, "2");
+            assertTrue(plan.contains("Index Scan using task_executor_" + sort.getValue()), plan);
+            assertFalse(plan.contains("Sort"), plan);
+        }
+    }
+
+    private String taskListSql(Runnable call) {
+        RequestStatements statements = sqlStatementCounter.start();
+        try {
+            call.run();
+        } finally {
+            sqlStatementCounter.stop();
+        }
+        return statements.getExecutions().keySet().stream()
+                .filter(sql -> sql.contains("from task") && sql.contains("order by"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No task list query in " + statements));
+    }
+
+    private String explain(String sql, String... parameters) throws SQLException {
+        String bound = sql;
+        for (String parameter : parameters) {
+            bound = bound.replaceFirst("\\?", parameter);
+        }
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("analyze task");
+            statement.execute("set enable_seqscan = off");
+            statement.execute("set enable_bitmapscan = off");
+            try (ResultSet resultSet = statement.executeQuery("explain " + bound)) {
+                StringBuilder plan = new StringBuilder();
+                while (resultSet.next()) plan.append(resultSet.getString(1)).append('\n');
+                return plan.toString();
+            } finally {
+                statement.execute("reset enable_seqscan");
+                statement.execute("reset enable_bitmapscan");
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import com.example.monitoring.RequestStatements;
+import com.example.monitoring.SqlStatementCounter;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_CLASS;
+
+/**
+ * Explains the search query and checks that the task arms probe the GIN indexes scoped to the user and that the comment
+ * arm is limited to the user's tasks. The tables are filled with enough rows for the scoped indexes to pay off,
+ * vacuumed because GIN cost estimates read the index statistics only vacuum updates, and sequential scans are disabled.
+ * Bitmap scans stay on, GIN indexes support no other kind.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Sql(scripts = {"classpath:before_tests.sql", "classpath:search_plan_tests.sql"}, executionPhase = BEFORE_TEST_CLASS)
+class TaskSearchQueryPlanTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void searchProbesScopedIndexes() throws SQLException {
+        String plan = explain(searchSql(), "'needle'", "2", "'needle'", "'needle'", "2", "'needle'", "'needle'", "2", "2", "'needle'", "20", "0");
+        assertTrue(plan.contains("Bitmap Index Scan on task_owner_search_vector_idx"), plan);
+        assertTrue(plan.contains("Index Cond: ((owner_id = 2) AND (search_vector @@"), plan);
+        assertTrue(plan.contains("Bitmap Index Scan on task_executor_search_vector_idx"), plan);
+        assertTrue(plan.contains("Index Cond: ((executor_id = 2) AND (search_vector @@"), plan);
+        assertTrue(plan.contains("(task_id = ANY"), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    private String searchSql() {
+        RequestStatements statements = sqlStatementCounter.start();
+        try {
+            taskService.searchTasks(2, "needle", 0, 20);
+        } finally {
+            sqlStatementCounter.stop();
+        }
+        return statements.getExecutions().keySet().stream()
+                .filter(sql -> sql.contains("websearch_to_tsquery"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No search query in " + statements));
+    }
+
+    private String explain(String sql, String... parameters) throws SQLException {
+        String bound = sql;
+        for (String parameter : parameters) {
+            bound = bound.replaceFirst("\\?", parameter);
+        }
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("vacuum analyze task");
+            statement.execute("vacuum analyze comment");
+            statement.execute("set enable_seqscan = off");
+            try (ResultSet resultSet = statement.executeQuery("explain " + bound)) {
+                StringBuilder plan = new StringBuilder();
+                while (resultSet.next()) plan.append(resultSet.getString(1)).append('\n');
+                return plan.toString();
+            } finally {
+                statement.execute("reset enable_seqscan");
+            }
+        }
+    }
+}
@@ -1,40 +1,17 @@
-DROP TABLE IF EXISTS  comment;
-DROP TABLE IF EXISTS task;
-DROP TABLE IF EXISTS  user_table;
+TRUNCATE TABLE comment, task_counter, task, user_table RESTART IDENTITY;
 
-ALTER SEQUENCE IF EXISTS user_table_id_seq restart;
-ALTER SEQUENCE IF EXISTS task_id_seq restart;
-ALTER SEQUENCE IF EXISTS comment_id_seq restart;
+-- the fixture ids are 1, 2, 3, Hibernate allocates task ids from 4 on in blocks of 50
+ALTER SEQUENCE task_id_seq INCREMENT BY 1;
 
-create table  user_table(
-                           id int primary key generated by default as identity,
-                           username varchar,
-                           mail varchar not null unique ,
-                           password varchar not null
-);
-
-create table task(
-                     id int primary key generated by default as identity,
-                     title varchar,
-                     description varchar,
-                     state varchar,
-                     priority varchar,
-                     owner_id int references user_table (id),
-                     executor_id int references user_table (id)
-);
-
-create table comment(
-                        id int primary key generated by default as identity,
-                        text varchar,
-                        user_id int references user_table(id),
-                        task_id int references task(id)
-);
-
-
-insert into user_table (username, mail, password) VALUES ('base', 'base@mail.ru', 'password');
-insert into user_table (username, mail, password) VALUES ('test1', 'test1@mail.ru', 'password');
-insert into user_table (username, mail, password) VALUES ('test2', 'test2@mail.ru', 'password');
+insert into user_table (username, mail, password) VALUES ('base', 'base@mail.ru', '$2a$04$B5Y3BCPlqIQ90snRfNsrsOxyGIHrxAa343vKIBCV/0mxT.Rewdtaa');
+insert into user_table (username, mail, password) VALUES ('test1', 'test1@mail.ru', '$2a$04$B5Y3BCPlqIQ90snRfNsrsOxyGIHrxAa343vKIBCV/0mxT.Rewdtaa');
+insert into user_table (username, mail, password) VALUES ('test2', 'test2@mail.ru', '$2a$04$B5Y3BCPlqIQ90snRfNsrsOxyGIHrxAa343vKIBCV/0mxT.Rewdtaa');
 
 insert into task (title, description, owner_id) values ('task_base', 'test base task', 1);
 insert into task (title, description, owner_id, executor_id) values ('task1', 'test task1', 2, 3);
 insert into task (title, description, owner_id, executor_id) values ('task2', 'test task2', 3, 2);
+
+insert into task_counter (user_id, role, state, priority, task_count) select owner_id, 'OWNER', coalesce(state, 'NONE'), coalesce(priority, 'NONE'), count(*) from task group by owner_id, coalesce(state, 'NONE'), coalesce(priority, 'NONE');
+insert into task_counter (user_id, role, state, priority, task_count) select executor_id, 'EXECUTOR', coalesce(state, 'NONE'), coalesce(priority, 'NONE'), count(*) from task where executor_id is not null group by executor_id, coalesce(state, 'NONE'), coalesce(priority, 'NONE');
+
+ALTER SEQUENCE task_id_seq INCREMENT BY 50;
@@ -0,0 +1,12 @@
+-- User 2 owns half of the tasks and executes the other half, one task or comment in a hundred mentions 'needle'
+insert into user_table (username, mail, password)
+select 'bulk' || i, 'bulk' || i || '@mail.ru', 'x' from generate_series(1, 100) i;
+
+insert into task (title, description, state, priority, owner_id, executor_id)
+select 'bulk task ' || i, case when i % 100 = 0 then 'needle in a task' else 'bulk description' end, 'WAITING', 'MEDIUM',
+       case when i % 2 = 0 then 2 else 4 + i % 100 end, case when i % 2 = 1 then 2 else 4 + i % 100 end
+from generate_series(1, 20000) i;
+
+insert into comment (text, user_id, task_id)
+select case when (t.i * 3 + n) % 100 = 0 then 'needle in a comment' else 'bulk comment' end, t.owner_id, t.id
+from (select id, owner_id, row_number() over (order by id) as i from task where title like 'bulk task %') t cross join generate_series(1, 3) n;
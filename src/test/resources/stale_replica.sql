@@ -0,0 +1,7 @@
+-- A replica that has not replayed anything yet: empty copies of the user and task tables, which shadow the primary's
+-- through the search path of the replica connections. Other tables fall through to the primary's.
+drop schema IF EXISTS stale_replica cascade;
+create schema stale_replica;
+create table stale_replica.user_table (like public.user_table including all);
+create table stale_replica.task (like public.task including all);
+create table stale_replica.comment (like public.comment including all);